@@ -287,6 +287,8 @@ SqlSelectProgressive SqlSelectProgressive() :
     final SqlNodeList groupBy;
     final SqlNode having;
     final SqlNodeList windowDecls;
+    final boolean withDelta;
+    final SqlNumericLiteral[] withError;
     final Span s;
 }
 {
@@ -320,6 +322,8 @@ SqlSelectProgressive SqlSelectProgressive() :
         groupBy = GroupByOpt()
         having = HavingOpt()
         windowDecls = WindowOpt()
+        withDelta = WithDeltaOpt()
+        withError = WithErrorOpt()
     |
         E() {
             fromClause = null;
@@ -329,13 +333,16 @@ SqlSelectProgressive SqlSelectProgressive() :
             groupBy = null;
             having = null;
             windowDecls = null;
+            withDelta = false;
+            withError = new SqlNumericLiteral[2];
         }
     )
     {
         return new SqlSelectProgressive(s.end(this), keywordList,
             new SqlNodeList(selectList, Span.of(selectList).pos()),
             fromClause, withFutureWhere, where, withFutureGroupBy,
-            groupBy, having, windowDecls, null, null, null);
+            groupBy, having, windowDecls, withDelta, withError[0], withError[1],
+            null, null, null);
     }
 }
 
@@ -419,6 +426,7 @@ SqlNodeList WithFutureGroupByOpt() :
     final Span s;
 }
 {
+    LOOKAHEAD(3)
     <WITH> <FUTURE> <GROUP> { s = span(); }
     <BY> list = GroupingElementList() {
         return new SqlNodeList(list, s.addAll(list).pos());
@@ -429,6 +437,35 @@ SqlNodeList WithFutureGroupByOpt() :
     }
 }
 
+boolean WithDeltaOpt() :
+{
+}
+{
+    LOOKAHEAD(2)
+    <WITH> <DELTA> { return true; }
+|
+    { return false; }
+}
+
+/**
+ * Parses WITH ERROR error CONFIDENCE confidence, returns the error and the confidence or an array
+ * of nulls if the clause is missing.
+ */
+SqlNumericLiteral[] WithErrorOpt() :
+{
+    final SqlNumericLiteral error;
+    final SqlNumericLiteral confidence;
+}
+{
+    LOOKAHEAD(2)
+    <WITH> <ERROR> error = UnsignedNumericLiteral()
+    <CONFIDENCE> confidence = UnsignedNumericLiteral() {
+        return new SqlNumericLiteral[] {error, confidence};
+    }
+|
+    { return new SqlNumericLiteral[2]; }
+}
+
 List<SqlNode> SelectFutureList() :
 {
     final List<SqlNode> list = new ArrayList<SqlNode>();
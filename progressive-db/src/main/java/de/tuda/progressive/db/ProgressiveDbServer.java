@@ -1,32 +1,63 @@
 package de.tuda.progressive.db;
 
 import de.tuda.progressive.db.buffer.DataBufferFactory;
+import de.tuda.progressive.db.buffer.impl.JdbcDataBuffer;
 import de.tuda.progressive.db.buffer.impl.JdbcDataBufferFactory;
+import de.tuda.progressive.db.buffer.impl.MemoryDataBufferFactory;
 import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.driver.DbDriverFactory;
-import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.driver.impl.DuckDBDataSource;
+import de.tuda.progressive.db.meta.CachingMetaData;
 import de.tuda.progressive.db.meta.jdbc.JdbcMetaData;
+import de.tuda.progressive.db.metrics.Metrics;
+import de.tuda.progressive.db.metrics.MetricsServer;
+import de.tuda.progressive.db.push.PushServer;
+import de.tuda.progressive.db.statement.PartitionOrder;
+import de.tuda.progressive.db.statement.ProgressiveBaseStatement;
+import de.tuda.progressive.db.statement.QueryScheduler;
+import de.tuda.progressive.db.statement.ResultCache;
 import de.tuda.progressive.db.statement.context.impl.BaseContextFactory;
 import de.tuda.progressive.db.statement.context.impl.jdbc.JdbcContextFactory;
+import de.tuda.progressive.db.statement.context.impl.memory.MemoryContextFactory;
+import de.tuda.progressive.db.util.SqlSupplier;
+import com.codahale.metrics.MetricRegistry;
 import org.apache.calcite.avatica.Meta;
+import org.apache.calcite.avatica.metrics.MetricsSystem;
+import org.apache.calcite.avatica.metrics.dropwizard3.DropwizardMetricsSystem;
+import org.apache.calcite.avatica.metrics.noop.NoopMetricsSystem;
 import org.apache.calcite.avatica.remote.Driver;
 import org.apache.calcite.avatica.remote.Service;
 import org.apache.calcite.avatica.server.HttpServer;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Properties;
+import javax.sql.DataSource;
 
 public class ProgressiveDbServer {
 
 	private static final Logger log = LoggerFactory.getLogger(ProgressiveDbServer.class);
 
+	public static final int DEFAULT_POOL_MIN = 1;
+
+	/**
+	 * Lower bound of the idle connections kept by each pool if its size is not configured. The
+	 * number of connections is not limited then, because open statements keep their buffer
+	 * connection and clients keep their source connection until they are closed.
+	 */
+	public static final int DEFAULT_POOL_MAX_IDLE = 10;
+
+	public static final long DEFAULT_POOL_MAX_WAIT = 10000;
+
 	public static void main(String[] args) throws Exception {
 		if (args.length == 0) {
 			log.error("pass path of configuration");
@@ -58,7 +89,29 @@ public class ProgressiveDbServer {
 						config.getString("tmp.user", null),
 						config.getString("tmp.password", null)
 				)
+				.batchSize(config.getInt("tmp.batchSize", JdbcDataBuffer.DEFAULT_BATCH_SIZE))
 				.port(config.getInt("port", 9000))
+				.pushPort(config.getInt("push.port", 0))
+				.metricsPort(config.getInt("metrics.port", 0))
+				.serialization(Driver.Serialization.valueOf(
+						config.getString("serialization", Driver.Serialization.JSON.name()).toUpperCase()))
+				.parallelism(config.getInt("parallelism", 1))
+				.fetchSize(config.getInt("source.fetchSize", ProgressiveBaseStatement.DEFAULT_FETCH_SIZE))
+				.partitionDirectory(config.getString("source.partitionDirectory", null))
+				.threads(config.getInt("threads", QueryScheduler.DEFAULT_THREADS))
+				.refreshInterval(config.getLong("refreshInterval", 0))
+				.partitionOrder(
+						PartitionOrder.Strategy.valueOf(config.getString(
+								"partition.order", PartitionOrder.Strategy.SEQUENTIAL.name()).toUpperCase()),
+						config.getLong("partition.seed", 0),
+						config.getString("partition.column", null)
+				)
+				.pool(
+						config.getInt("pool.min", DEFAULT_POOL_MIN),
+						config.getInt("pool.max", 0),
+						config.getBoolean("pool.validate", true),
+						config.getLong("pool.maxWait", DEFAULT_POOL_MAX_WAIT)
+				)
 				.build();
 
 		server.start();
@@ -75,8 +128,40 @@ public class ProgressiveDbServer {
 		private String tmpUrl;
 		private Properties tmpProperties;
 
+		private int batchSize = JdbcDataBuffer.DEFAULT_BATCH_SIZE;
+
 		private int port;
 
+		private int pushPort;
+
+		private int metricsPort;
+
+		private Driver.Serialization serialization = Driver.Serialization.JSON;
+
+		private int parallelism = 1;
+
+		private int fetchSize = ProgressiveBaseStatement.DEFAULT_FETCH_SIZE;
+
+		private int threads = QueryScheduler.DEFAULT_THREADS;
+
+		private long refreshInterval;
+
+		private PartitionOrder.Strategy partitionOrder = PartitionOrder.Strategy.SEQUENTIAL;
+
+		private long partitionSeed;
+
+		private String partitionColumn;
+
+		private String partitionDirectory;
+
+		private int poolMin = DEFAULT_POOL_MIN;
+
+		private int poolMax;
+
+		private boolean poolValidate = true;
+
+		private long poolMaxWait = DEFAULT_POOL_MAX_WAIT;
+
 		public Builder source(String url) {
 			source(url, null, null);
 			return this;
@@ -125,11 +210,110 @@ public class ProgressiveDbServer {
 			return this;
 		}
 
+		public Builder batchSize(int batchSize) {
+			this.batchSize = batchSize;
+			return this;
+		}
+
 		public Builder port(int port) {
 			this.port = port;
 			return this;
 		}
 
+		/**
+		 * @param pushPort port of the endpoint which streams results as server-sent events, 0 to
+		 *                 disable it
+		 */
+		public Builder pushPort(int pushPort) {
+			this.pushPort = pushPort;
+			return this;
+		}
+
+		/**
+		 * @param metricsPort port of the endpoint which serves the metrics on /metrics, 0 to disable
+		 *                    recording metrics
+		 */
+		public Builder metricsPort(int metricsPort) {
+			this.metricsPort = metricsPort;
+			return this;
+		}
+
+		/**
+		 * Clients have to use the same serialization, e.g. serialization=protobuf in the url.
+		 */
+		public Builder serialization(Driver.Serialization serialization) {
+			this.serialization = serialization;
+			return this;
+		}
+
+		public Builder parallelism(int parallelism) {
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		public Builder fetchSize(int fetchSize) {
+			this.fetchSize = fetchSize;
+			return this;
+		}
+
+		public Builder threads(int threads) {
+			this.threads = threads;
+			return this;
+		}
+
+		/**
+		 * @param refreshInterval target interval in milliseconds between two results of a query,
+		 *                        0 to read one partition per step
+		 */
+		public Builder refreshInterval(long refreshInterval) {
+			this.refreshInterval = refreshInterval;
+			return this;
+		}
+
+		/**
+		 * Order in which the partitions of a query are read.
+		 *
+		 * @param seed   seed of the random permutation
+		 * @param column column to stratify on, only used by the stratified order
+		 */
+		public Builder partitionOrder(PartitionOrder.Strategy strategy, long seed, String column) {
+			this.partitionOrder = strategy;
+			this.partitionSeed = seed;
+			this.partitionColumn = column;
+			return this;
+		}
+
+		/**
+		 * Stores each partition table in its own database file in the directory instead of the
+		 * source database, only supported by SQLite sources.
+		 */
+		public Builder partitionDirectory(String partitionDirectory) {
+			this.partitionDirectory = partitionDirectory;
+			return this;
+		}
+
+		/**
+		 * Sizes of the connection pools of the source, meta and tmp database.
+		 *
+		 * @param max      max. connections of each pool, 0 to not limit them
+		 * @param validate test connections before they are borrowed
+		 */
+		public Builder pool(int min, int max, boolean validate) {
+			this.poolMin = min;
+			this.poolMax = max;
+			this.poolValidate = validate;
+			return this;
+		}
+
+		/**
+		 * @param maxWait milliseconds to wait for a free connection before the query fails
+		 */
+		public Builder pool(int min, int max, boolean validate, long maxWait) {
+			pool(min, max, validate);
+			this.poolMaxWait = maxWait;
+			return this;
+		}
+
 		private Properties createProperties(String user, String password) {
 			Properties properties = new Properties();
 			if (user != null) {
@@ -149,7 +333,23 @@ public class ProgressiveDbServer {
 			server.metaProperties = metaProperties;
 			server.tmpUrl = tmpUrl;
 			server.tmpProperties = tmpProperties;
+			server.batchSize = batchSize;
 			server.port = port;
+			server.pushPort = pushPort;
+			server.metricsPort = metricsPort;
+			server.serialization = serialization;
+			server.parallelism = parallelism;
+			server.fetchSize = fetchSize;
+			server.threads = threads;
+			server.refreshInterval = refreshInterval;
+			server.partitionOrder = partitionOrder;
+			server.partitionSeed = partitionSeed;
+			server.partitionColumn = partitionColumn;
+			server.partitionDirectory = partitionDirectory;
+			server.poolMin = poolMin;
+			server.poolMax = poolMax;
+			server.poolValidate = poolValidate;
+			server.poolMaxWait = poolMaxWait;
 			return server;
 		}
 	}
@@ -163,10 +363,50 @@ public class ProgressiveDbServer {
 	private String tmpUrl;
 	private Properties tmpProperties;
 
+	private int batchSize;
+
 	private int port;
 
+	private int pushPort;
+
+	private int metricsPort;
+
+	private Driver.Serialization serialization;
+
+	private int parallelism;
+
+	private int fetchSize;
+
+	private int threads;
+
+	private long refreshInterval;
+
+	private PartitionOrder.Strategy partitionOrder;
+
+	private long partitionSeed;
+
+	private String partitionColumn;
+
+	private String partitionDirectory;
+
+	private int poolMin;
+
+	private int poolMax;
+
+	private boolean poolValidate;
+
+	private long poolMaxWait;
+
+	private final List<BasicDataSource> pools = new ArrayList<>();
+
 	private HttpServer server;
 
+	private PushServer pushServer;
+
+	private MetricsServer metricsServer;
+
+	private QueryScheduler scheduler;
+
 	private ProgressiveDbServer() {
 	}
 
@@ -174,28 +414,61 @@ public class ProgressiveDbServer {
 		if (server == null) {
 			log.info("starting");
 
-			final DbDriver sourceDriver = DbDriverFactory.create(sourceUrl);
-			final DbDriver bufferDriver = DbDriverFactory.create(tmpUrl);
-			final BaseContextFactory contextFactory = createContextFactory(sourceDriver, bufferDriver);
-			final DataBufferFactory dataBufferFactory = createDataBufferFactory(tmpUrl, tmpProperties);
-			final MetaData metaData = new JdbcMetaData(metaUrl, metaProperties);
+			final DbDriver sourceDriver = DbDriverFactory.create(sourceUrl, partitionDirectory);
+			final BaseContextFactory contextFactory = createContextFactory(sourceDriver);
+			final DataBufferFactory dataBufferFactory = createDataBufferFactory();
+			final CachingMetaData metaData = new CachingMetaData(
+					new JdbcMetaData(createPool(metaUrl, metaProperties)));
+			final SqlSupplier<Connection> sourceConnections =
+					createConnectionSupplier(createPool(sourceUrl, sourceProperties), "source");
+			scheduler = new QueryScheduler(threads, refreshInterval);
+
+			final MetricsSystem metricsSystem;
+			if (metricsPort > 0) {
+				final MetricRegistry registry = new MetricRegistry();
+				metricsSystem = new DropwizardMetricsSystem(registry);
+				metricsServer = new MetricsServer(metricsPort, registry);
+			} else {
+				metricsSystem = NoopMetricsSystem.getInstance();
+			}
+
+			final Metrics metrics = new Metrics(metricsSystem);
+			metrics.register(scheduler);
+			metrics.register(metaData);
 
 			final ProgressiveHandler progressiveHandler = new ProgressiveHandler(
-					DbDriverFactory.create(sourceUrl),
+					DbDriverFactory.create(sourceUrl, partitionDirectory),
 					metaData,
 					contextFactory,
-					dataBufferFactory
+					dataBufferFactory,
+					sourceConnections,
+					parallelism,
+					fetchSize,
+					scheduler,
+					PartitionOrder.create(partitionOrder, metaData, partitionSeed, partitionColumn),
+					metrics,
+					getMaxParked()
 			);
 
-			Meta meta = new ProgressiveMeta(sourceUrl, sourceProperties, progressiveHandler);
+			Meta meta = new ProgressiveMeta(
+					sourceUrl, sourceProperties, metricsSystem, progressiveHandler);
 			Service service = new PService(meta);
 
 			server = new HttpServer.Builder()
-					.withHandler(service, Driver.Serialization.JSON)
+					.withHandler(service, serialization)
 					.withPort(port)
 					.build();
 			server.start();
 
+			if (pushPort > 0) {
+				pushServer = new PushServer(pushPort, progressiveHandler, sourceConnections);
+				pushServer.start();
+			}
+
+			if (metricsServer != null) {
+				metricsServer.start();
+			}
+
 			Runtime.getRuntime().addShutdownHook(
 					new Thread(this::stop)
 			);
@@ -210,12 +483,88 @@ public class ProgressiveDbServer {
 		}
 	}
 
-	private BaseContextFactory createContextFactory(DbDriver sourceDriver, DbDriver bufferDriver) {
-		return new JdbcContextFactory(sourceDriver, bufferDriver);
+	private BaseContextFactory createContextFactory(DbDriver sourceDriver) {
+		if (tmpUrl == null) {
+			// buffers are kept in memory
+			return new MemoryContextFactory(sourceDriver);
+		}
+		return new JdbcContextFactory(sourceDriver, DbDriverFactory.create(tmpUrl));
 	}
 
-	private DataBufferFactory createDataBufferFactory(String url, Properties properties) {
-		return new JdbcDataBufferFactory(url, properties);
+	private DataBufferFactory createDataBufferFactory() {
+		if (tmpUrl == null) {
+			return new MemoryDataBufferFactory();
+		}
+		return new JdbcDataBufferFactory(createPool(tmpUrl, tmpProperties), batchSize);
+	}
+
+	private DataSource createPool(String url, Properties properties) {
+		// connections of DuckDB have to share one instance
+		final BasicDataSource pool =
+				DuckDBDataSource.accepts(url) ? new DuckDBDataSource() : new BasicDataSource();
+		pool.setUrl(url);
+		if (properties != null) {
+			properties.stringPropertyNames()
+					.forEach(name -> pool.addConnectionProperty(name, properties.getProperty(name)));
+		}
+		pool.setInitialSize(poolMin);
+		pool.setMinIdle(poolMin);
+		pool.setMaxIdle(poolMax > 0 ? poolMax : getPoolMaxIdle());
+		pool.setMaxTotal(poolMax > 0 ? poolMax : -1);
+		pool.setMaxWaitMillis(poolMaxWait);
+		pool.setTestOnBorrow(poolValidate);
+
+		pools.add(pool);
+		return pool;
+	}
+
+	/**
+	 * Parked statements keep a connection of the tmp pool, at least half of a limited pool is left
+	 * to running statements. They keep no source connection, readers only borrow them for a step.
+	 */
+	private int getMaxParked() {
+		if (tmpUrl == null || poolMax <= 0) {
+			return ResultCache.DEFAULT_PARKED;
+		}
+		return Math.min(ResultCache.DEFAULT_PARKED, poolMax / 2);
+	}
+
+	/**
+	 * Keeps enough connections open to run a step of the given parallelism on every scheduler
+	 * thread, readers borrow their connections for each step.
+	 */
+	private int getPoolMaxIdle() {
+		return Math.max(DEFAULT_POOL_MAX_IDLE, threads * parallelism);
+	}
+
+	/**
+	 * Borrows connections of the pool and reports an exhausted pool as such, instead of the generic
+	 * timeout of the pool.
+	 */
+	private SqlSupplier<Connection> createConnectionSupplier(DataSource pool, String name) {
+		return () -> {
+			try {
+				return pool.getConnection();
+			} catch (SQLException e) {
+				if (e.getCause() instanceof NoSuchElementException) {
+					throw new SQLException(String.format(
+							"no %s connection available within %d ms, all %d are in use",
+							name, poolMaxWait, poolMax), e);
+				}
+				throw e;
+			}
+		};
+	}
+
+	private void closePools() {
+		for (BasicDataSource pool : pools) {
+			try {
+				pool.close();
+			} catch (SQLException e) {
+				log.warn("could not close connection pool", e);
+			}
+		}
+		pools.clear();
 	}
 
 	public synchronized void stop() {
@@ -223,6 +572,17 @@ public class ProgressiveDbServer {
 			log.info("shutting down");
 			server.stop();
 			server = null;
+			if (pushServer != null) {
+				pushServer.close();
+				pushServer = null;
+			}
+			if (metricsServer != null) {
+				metricsServer.close();
+				metricsServer = null;
+			}
+			scheduler.close();
+			scheduler = null;
+			closePools();
 		}
 	}
 }
@@ -3,14 +3,19 @@ package de.tuda.progressive.db;
 import de.tuda.progressive.db.buffer.DataBufferFactory;
 import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.metrics.Metrics;
 import de.tuda.progressive.db.sql.parser.SqlCreateProgressiveView;
 import de.tuda.progressive.db.sql.parser.SqlDropProgressiveView;
 import de.tuda.progressive.db.sql.parser.SqlPrepareTable;
 import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
+import de.tuda.progressive.db.statement.PartitionOrder;
 import de.tuda.progressive.db.statement.ProgressiveStatement;
 import de.tuda.progressive.db.statement.ProgressiveStatementFactory;
+import de.tuda.progressive.db.statement.QueryScheduler;
+import de.tuda.progressive.db.statement.ResultCache;
 import de.tuda.progressive.db.statement.SimpleStatementFactory;
 import de.tuda.progressive.db.statement.context.impl.BaseContextFactory;
+import de.tuda.progressive.db.util.SqlSupplier;
 import java.sql.Connection;
 
 public class ProgressiveHandler {
@@ -22,8 +27,69 @@ public class ProgressiveHandler {
       MetaData metaData,
       BaseContextFactory contextFactory,
       DataBufferFactory dataBufferFactory) {
+    this(
+        driver,
+        metaData,
+        contextFactory,
+        dataBufferFactory,
+        null,
+        1,
+        0,
+        new QueryScheduler(),
+        PartitionOrder.SEQUENTIAL,
+        Metrics.NOOP);
+  }
+
+  public ProgressiveHandler(
+      DbDriver driver,
+      MetaData metaData,
+      BaseContextFactory contextFactory,
+      DataBufferFactory dataBufferFactory,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      PartitionOrder partitionOrder,
+      Metrics metrics) {
+    this(
+        driver,
+        metaData,
+        contextFactory,
+        dataBufferFactory,
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        partitionOrder,
+        metrics,
+        ResultCache.DEFAULT_PARKED);
+  }
+
+  public ProgressiveHandler(
+      DbDriver driver,
+      MetaData metaData,
+      BaseContextFactory contextFactory,
+      DataBufferFactory dataBufferFactory,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      PartitionOrder partitionOrder,
+      Metrics metrics,
+      int maxParked) {
     this.statementFactory =
-        new SimpleStatementFactory(driver, metaData, contextFactory, dataBufferFactory);
+        new SimpleStatementFactory(
+            driver,
+            metaData,
+            contextFactory,
+            dataBufferFactory,
+            connectionSupplier,
+            parallelism,
+            fetchSize,
+            scheduler,
+            partitionOrder,
+            metrics,
+            maxParked);
   }
 
   public ProgressiveStatement handle(Connection connection, SqlPrepareTable prepareTable) {
@@ -6,7 +6,9 @@ import de.tuda.progressive.db.sql.parser.SqlDropProgressiveView;
 import de.tuda.progressive.db.sql.parser.SqlParserImpl;
 import de.tuda.progressive.db.sql.parser.SqlPrepareTable;
 import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
+import de.tuda.progressive.db.statement.ProgressiveResultSet;
 import de.tuda.progressive.db.statement.ProgressiveStatement;
+import de.tuda.progressive.db.util.LruCache;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -41,9 +43,20 @@ public class ProgressiveMeta extends JdbcMeta {
   private final ConcurrentMap<Integer, ProgressiveStatement> durableStatements =
       new ConcurrentHashMap<>();
 
+  private static final int PARSE_CACHE_SIZE = 256;
+
   private final ProgressiveHandler progressiveHandler;
 
-  private final SqlParser.Config parserConfig =
+  /**
+   * Parsed progressive statements by their sql. The trees are shared by all statements of the same
+   * sql, so they must not be modified after parsing.
+   */
+  private final LruCache<String, SqlNode> parseCache = new LruCache<>(PARSE_CACHE_SIZE);
+
+  /**
+   * Config of the parser of progressive statements, shared by all endpoints.
+   */
+  public static final SqlParser.Config PARSER_CONFIG =
       SqlParser.configBuilder()
           .setCaseSensitive(true)
           .setParserFactory(SqlParserImpl.FACTORY)
@@ -85,7 +98,7 @@ public class ProgressiveMeta extends JdbcMeta {
   private void init() {
     // warm up parser
     try {
-      SqlParser.create("select * from dual", parserConfig).parseStmt();
+      SqlParser.create("select * from dual", PARSER_CONFIG).parseStmt();
     } catch (SqlParseException e) {
       // do nothing
     }
@@ -242,6 +255,23 @@ public class ProgressiveMeta extends JdbcMeta {
       return Frame.create(offset, true, Collections.emptyList());
     }
 
+    final long start = System.nanoTime();
+    // rows of progressive results are already arrays, so they are sent without copying
+    final List<Object> rows =
+        resultSet instanceof ProgressiveResultSet
+            ? ((ProgressiveResultSet) resultSet).drainRows()
+            : copyRows(resultSet);
+    offset += rows.size();
+
+    log.info(
+        "send {} rows back, created frame in {}ms",
+        rows.size(),
+        (System.nanoTime() - start) / 1000000);
+
+    return Frame.create(offset, done, rows);
+  }
+
+  private List<Object> copyRows(ResultSet resultSet) throws SQLException {
     final List<Object> rows = new ArrayList<>();
 
     if (resultSet.getMetaData() != null) {
@@ -253,30 +283,17 @@ public class ProgressiveMeta extends JdbcMeta {
           columns[i] = resultSet.getObject(i + 1);
         }
         rows.add(columns);
-        offset++;
       }
     }
-
-    log.info("send data back");
-
-    return Frame.create(offset, done, rows);
+    return rows;
   }
 
   private <T> Optional<T> prepareProgressiveStatement(
       String connectionId,
       String sql, Function<ProgressiveStatement, T> success) {
-    SqlNode node = parse(sql);
+    final SqlNode node = unwrapOrderBy(parse(sql));
     ProgressiveStatement statement;
 
-    if (node instanceof SqlOrderBy) {
-      final SqlOrderBy orderBy = (SqlOrderBy) node;
-      if (orderBy.query instanceof SqlSelectProgressive) {
-        final SqlSelectProgressive select = (SqlSelectProgressive) orderBy.query;
-        select.setOrderBy(orderBy.orderList);
-        node = select;
-      }
-    }
-
     final Connection connection = getConnectionSafe(connectionId);
 
     if (node instanceof SqlPrepareTable) {
@@ -294,6 +311,24 @@ public class ProgressiveMeta extends JdbcMeta {
     return Optional.of(success.apply(statement));
   }
 
+  /**
+   * Moves the ORDER BY of a progressive select into the select, the parser wraps the select with
+   * it.
+   */
+  public static SqlNode unwrapOrderBy(SqlNode node) {
+    if (node instanceof SqlOrderBy) {
+      final SqlOrderBy orderBy = (SqlOrderBy) node;
+      if (orderBy.query instanceof SqlSelectProgressive) {
+        // the parsed tree may be cached, so only a copy gets the ORDER BY
+        final SqlSelectProgressive select =
+            ((SqlSelectProgressive) orderBy.query).clone(orderBy.query.getParserPosition());
+        select.setOrderBy(orderBy.orderList);
+        return select;
+      }
+    }
+    return node;
+  }
+
   private Connection getConnectionSafe(String connectionId) {
     try {
       return getConnection(connectionId);
@@ -303,10 +338,32 @@ public class ProgressiveMeta extends JdbcMeta {
   }
 
   private SqlNode parse(String sql) {
+    final SqlNode cached = parseCache.get(sql);
+    if (cached != null) {
+      return cached;
+    }
+
+    final SqlNode node;
     try {
-      return SqlParser.create(sql, parserConfig).parseStmt();
+      node = SqlParser.create(sql, PARSER_CONFIG).parseStmt();
     } catch (SqlParseException e) {
       throw new ProgressiveException(e);
     }
+
+    if (isProgressive(node)) {
+      // plain sql is passed through and would only evict progressive statements
+      parseCache.put(sql, node);
+    }
+    return node;
+  }
+
+  private boolean isProgressive(SqlNode node) {
+    if (node instanceof SqlOrderBy) {
+      node = ((SqlOrderBy) node).query;
+    }
+    return node instanceof SqlSelectProgressive
+        || node instanceof SqlPrepareTable
+        || node instanceof SqlCreateProgressiveView
+        || node instanceof SqlDropProgressiveView;
   }
 }
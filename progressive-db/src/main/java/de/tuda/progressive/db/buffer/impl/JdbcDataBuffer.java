@@ -5,23 +5,45 @@ import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.exception.ProgressiveException;
 import de.tuda.progressive.db.statement.context.impl.jdbc.JdbcSelectContext;
 import de.tuda.progressive.db.util.SqlUtils;
+import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.calcite.sql.ddl.SqlCreateTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 
 public class JdbcDataBuffer extends JdbcSelectDataBuffer<JdbcSelectContext>
     implements DataBuffer<JdbcSelectContext> {
 
+  private static final Logger log = LoggerFactory.getLogger(JdbcDataBuffer.class);
+
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
   private final PreparedStatement insertBuffer;
 
   private final PreparedStatement updateBuffer;
 
+  private final int batchSize;
+
+  private final boolean batchUpdates;
+
   public JdbcDataBuffer(DbDriver driver, Connection connection, JdbcSelectContext context) {
+    this(driver, connection, context, DEFAULT_BATCH_SIZE);
+  }
+
+  public JdbcDataBuffer(
+      DbDriver driver, Connection connection, JdbcSelectContext context, int batchSize) {
     super(
         driver, connection, context, context.isPrepareSelect() ? context.getSelectBuffer() : null);
 
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be greater than 0");
+    }
+
     this.insertBuffer = prepare(context.getInsertBuffer());
     this.updateBuffer = prepare(context.getUpdateBuffer());
+    this.batchSize = batchSize;
+    this.batchUpdates = SqlUtils.supportsBatchUpdates(connection);
   }
 
   @Override
@@ -44,35 +66,84 @@ public class JdbcDataBuffer extends JdbcSelectDataBuffer<JdbcSelectContext>
 
   @Override
   public final void add(ResultSet result) {
+    final long start = System.nanoTime();
     try {
       addInternal(result);
     } catch (SQLException e) {
       throw new ProgressiveException(e);
     }
+    log.debug("partition merged in {} ms", (System.nanoTime() - start) / 1000000);
   }
 
   private void addInternal(ResultSet result) throws SQLException {
+    final boolean autoCommit = connection.getAutoCommit();
+    if (autoCommit) {
+      connection.setAutoCommit(false);
+    }
+
+    try {
+      if (updateBuffer != null) {
+        update(result);
+      } else {
+        insert(result);
+      }
+
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (SQLException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      if (autoCommit) {
+        connection.setAutoCommit(true);
+      }
+    }
+  }
+
+  private void update(ResultSet result) throws SQLException {
     final int internalCount = result.getMetaData().getColumnCount();
 
-    if (updateBuffer != null) {
-      while (!result.isClosed() && result.next()) {
-        // TODO support where
-        for (int i = 1; i <= result.getMetaData().getColumnCount(); i++) {
-          updateBuffer.setObject(i, result.getObject(i));
-        }
+    while (!result.isClosed() && result.next()) {
+      // TODO support where
+      for (int i = 1; i <= internalCount; i++) {
+        updateBuffer.setObject(i, result.getObject(i));
+      }
+
+      if (updateBuffer.executeUpdate() == 0) {
+        setInsertParameters(result, internalCount);
+        insertBuffer.executeUpdate();
+      }
+    }
+  }
+
+  private void insert(ResultSet result) throws SQLException {
+    final int internalCount = result.getMetaData().getColumnCount();
+    int batchCount = 0;
 
-        if (updateBuffer.executeUpdate() == 0) {
-          insert(result, internalCount);
-        }
+    while (!result.isClosed() && result.next()) {
+      setInsertParameters(result, internalCount);
+      if (!batchUpdates) {
+        insertBuffer.executeUpdate();
+        continue;
       }
-    } else {
-      while (!result.isClosed() && result.next()) {
-        insert(result, internalCount);
+
+      insertBuffer.addBatch();
+
+      if (++batchCount == batchSize) {
+        insertBuffer.executeBatch();
+        batchCount = 0;
       }
     }
+
+    if (batchCount > 0) {
+      insertBuffer.executeBatch();
+    }
   }
 
-  private void insert(ResultSet result, int internalCount) throws SQLException {
+  private void setInsertParameters(ResultSet result, int internalCount) throws SQLException {
     for (int i = 1; i <= internalCount; i++) {
       insertBuffer.setObject(i, result.getObject(i));
 
@@ -80,14 +151,34 @@ public class JdbcDataBuffer extends JdbcSelectDataBuffer<JdbcSelectContext>
         insertBuffer.setObject(i + internalCount, result.getObject(i));
       }
     }
-    insertBuffer.executeUpdate();
   }
 
+  /**
+   * Drops the buffer and closes the connection, which returns it to its pool if it was borrowed from
+   * one.
+   */
   @Override
   public void close() throws Exception {
     SqlUtils.closeSafe(insertBuffer);
     SqlUtils.closeSafe(updateBuffer);
     super.close();
+
+    try {
+      dropBuffer(context.getCreateBuffer());
+    } finally {
+      SqlUtils.closeSafe(connection);
+    }
+  }
+
+  private void dropBuffer(SqlCreateTable create) throws SQLException {
+    if (create == null) {
+      return;
+    }
+
+    final SqlIdentifier name = (SqlIdentifier) create.getOperandList().get(0);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(driver.toSql(SqlUtils.dropTable(name.getSimple())));
+    }
   }
 
   public Connection getConnection() {
@@ -25,19 +25,30 @@ public class JdbcDataBufferFactory
 
   private final DataSource dataSource;
 
+  private final int batchSize;
+
   public JdbcDataBufferFactory(String url) {
     this(url, null);
   }
 
   public JdbcDataBufferFactory(String url, Properties properties) {
-    this(url, properties, null);
+    this(url, properties, JdbcDataBuffer.DEFAULT_BATCH_SIZE);
+  }
+
+  public JdbcDataBufferFactory(String url, Properties properties, int batchSize) {
+    this(url, properties, null, batchSize);
   }
 
   public JdbcDataBufferFactory(DataSource dataSource) {
-    this(null, null, dataSource);
+    this(dataSource, JdbcDataBuffer.DEFAULT_BATCH_SIZE);
+  }
+
+  public JdbcDataBufferFactory(DataSource dataSource, int batchSize) {
+    this(null, null, dataSource, batchSize);
   }
 
-  private JdbcDataBufferFactory(String url, Properties properties, DataSource dataSource) {
+  private JdbcDataBufferFactory(
+      String url, Properties properties, DataSource dataSource, int batchSize) {
     if (url == null && dataSource == null) {
       throw new IllegalArgumentException("set either url or dataSource");
     }
@@ -45,6 +56,7 @@ public class JdbcDataBufferFactory
     this.url = url;
     this.properties = properties;
     this.dataSource = dataSource;
+    this.batchSize = batchSize;
   }
 
   @Override
@@ -72,7 +84,7 @@ public class JdbcDataBufferFactory
   }
 
   private DataBuffer create(DbDriver driver, Connection connection, JdbcSelectContext context) {
-    return new JdbcDataBuffer(driver, connection, context);
+    return new JdbcDataBuffer(driver, connection, context, batchSize);
   }
 
   private Connection getConnection() {
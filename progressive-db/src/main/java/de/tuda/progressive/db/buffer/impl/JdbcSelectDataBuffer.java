@@ -6,6 +6,7 @@ import de.tuda.progressive.db.exception.ProgressiveException;
 import de.tuda.progressive.db.statement.ResultSetMetaDataWrapper;
 import de.tuda.progressive.db.statement.context.MetaField;
 import de.tuda.progressive.db.statement.context.impl.BaseContext;
+import de.tuda.progressive.db.util.MetaFieldUtils;
 import de.tuda.progressive.db.util.SqlUtils;
 import org.apache.calcite.sql.SqlCall;
 import org.apache.calcite.sql.SqlSelect;
@@ -93,9 +94,7 @@ public class JdbcSelectDataBuffer<C extends BaseContext> implements SelectDataBu
           if (metaFields.get(i - 1) == MetaField.CONFIDENCE_INTERVAL) {
             final double count = resultSet.getDouble(i);
             final Pair<Integer, Integer> bound = bounds.get(i - 1);
-            row[i - 1] =
-                ((double) (bound.getRight() - bound.getLeft()))
-                    * Math.sqrt(1.0 / (2.0 * count) * Math.log(2.0 / (1.0 - 0.95)));
+            row[i - 1] = MetaFieldUtils.getConfidenceInterval(bound, count);
           } else {
             row[i - 1] = resultSet.getObject(i);
           }
@@ -0,0 +1,223 @@
+package de.tuda.progressive.db.buffer.impl;
+
+import de.tuda.progressive.db.buffer.DataBuffer;
+import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.statement.context.impl.memory.MemoryContext;
+import de.tuda.progressive.db.util.MetaFieldUtils;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Keeps the partial aggregates of a query in a hash map instead of a buffer table. The rows of
+ * each partition are keyed by their index columns and accumulated into primitive arrays, so merging
+ * a partition needs neither SQL nor a round trip to a buffer database.
+ */
+public class MemoryDataBuffer implements DataBuffer<MemoryContext> {
+
+  private final MemoryContext context;
+
+  private final List<MetaField> metaFields;
+
+  private final int fieldCount;
+
+  /** Source columns of the index columns. */
+  private final int[] keyColumns;
+
+  /** Source columns of the accumulated values. */
+  private final int[] valueColumns;
+
+  /** Position of a result column in the output key or in the accumulated values. */
+  private final int[] positions;
+
+  /** Positions of the output key in the index, null if both are equal. */
+  private final int[] outputKey;
+
+  private final Comparator<Object[]> comparator;
+
+  private final Map<List<Object>, double[]> groups = new HashMap<>();
+
+  public MemoryDataBuffer(MemoryContext context) {
+    this.context = context;
+    this.metaFields = context.getMetaFields();
+
+    final boolean hasAggregation = context.hasAggregation();
+    final List<Integer> keyColumns = new ArrayList<>();
+    final List<Integer> valueColumns = new ArrayList<>();
+    final List<Integer> outputKey = new ArrayList<>();
+
+    int fieldCount = 0;
+    this.positions = new int[metaFields.size()];
+
+    int sourceColumn = 1;
+    for (int i = 0; i < metaFields.size(); i++) {
+      final MetaField metaField = metaFields.get(i);
+
+      if (metaField == MetaField.NONE) {
+        positions[i] = outputKey.size();
+        outputKey.add(keyColumns.size());
+      }
+
+      if (MetaFieldUtils.isIndex(metaField, hasAggregation)
+          || metaField == MetaField.FUTURE_WHERE) {
+        keyColumns.add(sourceColumn);
+      } else {
+        positions[i] = valueColumns.size();
+        for (int j = 0; j < MetaFieldUtils.getSourceColumnCount(metaField); j++) {
+          valueColumns.add(sourceColumn + j);
+        }
+      }
+
+      if (metaField != MetaField.FUTURE_WHERE) {
+        fieldCount++;
+      }
+      sourceColumn += MetaFieldUtils.getSourceColumnCount(metaField);
+    }
+
+    this.fieldCount = fieldCount;
+    this.keyColumns = toArray(keyColumns);
+    this.valueColumns = toArray(valueColumns);
+    this.outputKey = outputKey.size() == keyColumns.size() ? null : toArray(outputKey);
+    this.comparator = createComparator(context.getOrderBy());
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    return values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparator<Object[]> createComparator(List<Pair<Integer, Boolean>> orderBy) {
+    Comparator<Object[]> comparator = null;
+
+    for (Pair<Integer, Boolean> order : orderBy) {
+      final int index = order.getLeft();
+      Comparator<Object[]> next =
+          Comparator.comparing(
+              row -> (Comparable<Object>) row[index],
+              Comparator.nullsFirst(Comparator.naturalOrder()));
+      if (order.getRight()) {
+        next = next.reversed();
+      }
+      comparator = comparator == null ? next : comparator.thenComparing(next);
+    }
+
+    return comparator;
+  }
+
+  @Override
+  public synchronized void add(ResultSet result) {
+    try {
+      while (result.next()) {
+        final Object[] key = new Object[keyColumns.length];
+        for (int i = 0; i < key.length; i++) {
+          key[i] = result.getObject(keyColumns[i]);
+        }
+
+        final double[] values =
+            groups.computeIfAbsent(Arrays.asList(key), k -> new double[valueColumns.length]);
+        for (int i = 0; i < values.length; i++) {
+          values[i] += result.getDouble(valueColumns[i]);
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public synchronized List<Object[]> get(int partition, double progress) {
+    final Map<List<Object>, double[]> rows = outputKey == null ? groups : groupOutput();
+    final Map<Integer, Pair<Integer, Integer>> bounds = context.getBounds();
+    final List<Object[]> results = new ArrayList<>(rows.size());
+
+    for (Map.Entry<List<Object>, double[]> entry : rows.entrySet()) {
+      final List<Object> key = entry.getKey();
+      final double[] values = entry.getValue();
+      final List<Object> row = new ArrayList<>(fieldCount);
+
+      for (int i = 0; i < fieldCount; i++) {
+        final int position = positions[i];
+
+        switch (metaFields.get(i)) {
+          case NONE:
+            row.add(key.get(position));
+            break;
+          case AVG:
+            row.add(values[position] / values[position + 1]);
+            break;
+          case COUNT:
+          case SUM:
+            row.add(values[position] / progress);
+            break;
+          case PARTITION:
+            row.add(partition);
+            break;
+          case PROGRESS:
+            row.add(progress);
+            break;
+          case CONFIDENCE_INTERVAL:
+            row.add(MetaFieldUtils.getConfidenceInterval(bounds.get(i), values[position]));
+            break;
+          case FUTURE_GROUP:
+            // not part of the result
+            break;
+          default:
+            throw new IllegalArgumentException("metaField not supported: " + metaFields.get(i));
+        }
+      }
+
+      results.add(row.toArray());
+    }
+
+    if (comparator != null) {
+      results.sort(comparator);
+    }
+
+    return results;
+  }
+
+  /**
+   * Merges the groups which only differ in future columns.
+   */
+  private Map<List<Object>, double[]> groupOutput() {
+    final Map<List<Object>, double[]> rows = new HashMap<>();
+
+    for (Map.Entry<List<Object>, double[]> entry : groups.entrySet()) {
+      final Object[] key = new Object[outputKey.length];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = entry.getKey().get(outputKey[i]);
+      }
+
+      final double[] values =
+          rows.computeIfAbsent(Arrays.asList(key), k -> new double[valueColumns.length]);
+      for (int i = 0; i < values.length; i++) {
+        values[i] += entry.getValue()[i];
+      }
+    }
+
+    return rows;
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() {
+    return context.getMetaData();
+  }
+
+  @Override
+  public MemoryContext getContext() {
+    return context;
+  }
+
+  @Override
+  public synchronized void close() {
+    groups.clear();
+  }
+}
@@ -0,0 +1,21 @@
+package de.tuda.progressive.db.buffer.impl;
+
+import de.tuda.progressive.db.buffer.DataBuffer;
+import de.tuda.progressive.db.buffer.DataBufferFactory;
+import de.tuda.progressive.db.buffer.SelectDataBuffer;
+import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.statement.context.impl.memory.MemoryContext;
+
+public class MemoryDataBufferFactory
+    implements DataBufferFactory<MemoryContext, JdbcSourceContext> {
+
+  @Override
+  public DataBuffer create(MemoryContext context) {
+    return new MemoryDataBuffer(context);
+  }
+
+  @Override
+  public SelectDataBuffer create(DataBuffer<MemoryContext> dataBuffer, JdbcSourceContext context) {
+    throw new UnsupportedOperationException("progressive views are not supported in memory");
+  }
+}
@@ -5,7 +5,10 @@ import de.tuda.progressive.db.meta.MetaData;
 import de.tuda.progressive.db.model.Column;
 import de.tuda.progressive.db.model.ColumnMeta;
 import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
 import de.tuda.progressive.db.util.SqlUtils;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -14,6 +17,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -47,13 +52,18 @@ public abstract class AbstractDriver implements DbDriver {
 
   protected static final String PART_COLUMN_NAME = "_partition";
 
-  private static final String INSERT_PART_TPL =
-      "insert into %s select %s from (%s) t where row_number = %d";
+  private static final String SELECT_PART_TPL = "select %s, row_number from (%s) t";
+
+  private static final String INSERT_ROW_TPL = "insert into %s (%s) values (%s)";
+
+  private static final int INSERT_BATCH_SIZE = 500;
 
   private SqlDialect dialect;
 
   private int partitionSize;
 
+  private long dimensionSize;
+
   @Override
   public String toSql(SqlNode node) {
     return node.toSqlString(dialect).getSql();
@@ -64,30 +74,61 @@ public abstract class AbstractDriver implements DbDriver {
     return null;
   }
 
+  @Override
+  public void prepareStreaming(Connection connection, PreparedStatement statement, int fetchSize) {
+    try {
+      statement.setFetchSize(fetchSize);
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public void openPartitions(Connection connection, List<String> partitionTables) {
+    // partitions are stored in the source database
+  }
+
+  @Override
+  public void closePartitions(Connection connection, List<String> partitionTables) {
+    // partitions are stored in the source database
+  }
+
   @Override
   public void prepareTable(Connection connection, String table, MetaData metaData) {
-    final List<Partition> partitions = split(connection, table);
-    final List<Column> columns = getColumns(connection, table);
+    // the source tables do not change while they are split, so their column metas are read once
+    final Map<String, List<ColumnMeta>> columnMetas = new HashMap<>();
+    final List<PartitionColumn> partitionColumns = new ArrayList<>();
+    final List<Partition> partitions = split(connection, table, columnMetas, partitionColumns);
+    final List<Column> columns = getColumns(connection, table, columnMetas);
 
-    metaData.add(partitions, columns);
+    metaData.add(partitions, columns, partitionColumns);
   }
 
-  private List<Partition> split(Connection connection, String table) {
+  private List<Partition> split(
+      Connection connection,
+      String table,
+      Map<String, List<ColumnMeta>> columnMetas,
+      List<PartitionColumn> partitionColumns) {
     final List<Partition> partitions = new ArrayList<>();
 
     for (Map.Entry<String, Long> entry : getPartitionSizes(connection, table).entrySet()) {
       final String currentTable = entry.getKey();
       final long partitionCount = entry.getValue();
+      final List<ColumnMeta> currentColumnMetas =
+          getColumnMetas(connection, currentTable, columnMetas);
 
       log.info("create {} partitions for table {}", partitionCount, currentTable);
-      createPartitions(connection, currentTable, partitionCount);
+      createPartitions(connection, currentTable, partitionCount, currentColumnMetas);
 
       log.info("insert data into table {}", currentTable);
-      insertData(connection, currentTable, partitionCount);
+      final long[] entries =
+          insertData(connection, currentTable, partitionCount, currentColumnMetas);
 
-      log.info("read meta data of table {}", currentTable);
-      partitions.addAll(
-          getPartitions(connection, currentTable, partitionCount, table.equals(currentTable)));
+      partitions.addAll(getPartitions(currentTable, entries, table.equals(currentTable)));
+
+      log.info("read bounds of partitions of table {}", currentTable);
+      partitionColumns.addAll(
+          getPartitionColumns(connection, currentTable, partitionCount, currentColumnMetas));
     }
 
     return partitions;
@@ -102,7 +143,8 @@ public abstract class AbstractDriver implements DbDriver {
 
     partitionSizes.put(baseTable, getPartitionCount(connection, baseTable, size));
     for (String foreignTable : foreignTables) {
-      partitionSizes.put(foreignTable, getPartitionCount(connection, foreignTable, size));
+      partitionSizes.put(
+          foreignTable, getDimensionPartitionCount(connection, foreignTable, size));
     }
 
     return partitionSizes;
@@ -142,9 +184,8 @@ public abstract class AbstractDriver implements DbDriver {
     return joins;
   }
 
-  protected void createPartitions(Connection connection, String table, long partitions) {
-    final List<ColumnMeta> columnMetas = getColumnMetas(connection, table);
-
+  protected void createPartitions(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
     try (Statement destStatement = connection.createStatement()) {
       for (int i = 0; i < partitions; i++) {
         final String partitionTable = getPartitionTable(table, i);
@@ -164,21 +205,86 @@ public abstract class AbstractDriver implements DbDriver {
     return String.format("%s_%d", getPartitionTable(table), partition);
   }
 
-  protected void insertData(Connection connection, String table, long partitions) {
+  /**
+   * @return number of rows inserted into each partition
+   */
+  protected long[] insertData(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
     final String template = String.format(getSelectTemplate(), partitions, table);
-    insertData(connection, template, table, partitions);
-  }
+    return insertData(connection, template, table, partitions, columnMetas);
+  }
+
+  /**
+   * Reads the table once and routes every row into the insert batch of its partition.
+   */
+  private long[] insertData(
+      Connection connection,
+      String template,
+      String table,
+      long partitions,
+      List<ColumnMeta> columnMetas) {
+    final SqlNodeList columns = getSelectColumns(columnMetas);
+    final String columnList = toSql(columns);
+    final String values = String.join(", ", Collections.nCopies(columns.size(), "?"));
+    final List<PreparedStatement> inserts = new ArrayList<>();
+    final int[] batchSizes = new int[(int) partitions];
+    final long[] entries = new long[(int) partitions];
+
+    try {
+      final boolean autoCommit = connection.getAutoCommit();
+      final boolean batchUpdates = SqlUtils.supportsBatchUpdates(connection);
+      connection.setAutoCommit(false);
+
+      try {
+        for (int i = 0; i < partitions; i++) {
+          final String sql =
+              String.format(INSERT_ROW_TPL, getPartitionTable(table, i), columnList, values);
+          inserts.add(connection.prepareStatement(sql));
+        }
 
-  private void insertData(Connection connection, String template, String table, long partitions) {
-    final SqlNodeList columns = getSelectColumns(connection, table);
+        try (Statement statement = connection.createStatement()) {
+          statement.setFetchSize(INSERT_BATCH_SIZE);
 
-    try (Statement statement = connection.createStatement()) {
-      for (int i = 0; i < partitions; i++) {
-        final String sql =
-            String.format(
-                INSERT_PART_TPL, getPartitionTable(table, i), toSql(columns), template, i);
+          final String sql = String.format(SELECT_PART_TPL, columnList, template);
+          try (ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+              final int partition = result.getInt(columns.size() + 1);
+              final PreparedStatement insert = inserts.get(partition);
+
+              for (int i = 1; i <= columns.size(); i++) {
+                insert.setObject(i, result.getObject(i));
+              }
+              entries[partition]++;
+
+              if (!batchUpdates) {
+                insert.executeUpdate();
+                continue;
+              }
+
+              insert.addBatch();
+
+              if (++batchSizes[partition] == INSERT_BATCH_SIZE) {
+                insert.executeBatch();
+                batchSizes[partition] = 0;
+              }
+            }
+          }
+        }
+
+        for (int i = 0; i < partitions; i++) {
+          if (batchSizes[i] > 0) {
+            inserts.get(i).executeBatch();
+          }
+        }
 
-        statement.execute(sql);
+        connection.commit();
+        return entries;
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        inserts.forEach(SqlUtils::closeSafe);
+        connection.setAutoCommit(autoCommit);
       }
     } catch (SQLException e) {
       throw new ProgressiveException(e);
@@ -189,22 +295,48 @@ public abstract class AbstractDriver implements DbDriver {
 
   private long getPartitionCount(Connection connection, String table, long partitionSize) {
     log.info("get count of partitions of table {} with size {}", table, partitionSize);
-    final long count = getCount(connection, table);
+    return getPartitionCount(getCount(connection, table), partitionSize);
+  }
+
+  private long getPartitionCount(long count, long partitionSize) {
     return (long) Math.ceil(((double) count / (double) partitionSize));
   }
 
-  private List<Column> getColumns(Connection connection, String baseTable) {
-    final List<Column> columns = new ArrayList<>(getColumnsOfTable(connection, baseTable));
+  /**
+   * Small dimension tables are kept in a single partition, so a join only iterates over the
+   * partitions of the fact table instead of the cross product of all partitions.
+   */
+  private long getDimensionPartitionCount(
+      Connection connection, String table, long partitionSize) {
+    final long count = getCount(connection, table);
+    if (count > 0 && count <= dimensionSize) {
+      log.info("keep dimension table {} with {} rows in a single partition", table, count);
+      return 1;
+    }
+
+    log.info("get count of partitions of table {} with size {}", table, partitionSize);
+    return getPartitionCount(count, partitionSize);
+  }
+
+  private List<Column> getColumns(
+      Connection connection, String baseTable, Map<String, List<ColumnMeta>> columnMetas) {
+    final List<Column> columns =
+        new ArrayList<>(
+            getColumnsOfTable(
+                connection, baseTable, getColumnMetas(connection, baseTable, columnMetas)));
 
     for (String foreignTable : getForeignTables(connection, baseTable)) {
-      columns.addAll(getColumnsOfTable(connection, foreignTable));
+      columns.addAll(
+          getColumnsOfTable(
+              connection, foreignTable, getColumnMetas(connection, foreignTable, columnMetas)));
     }
 
     return columns;
   }
 
-  private List<Column> getColumnsOfTable(Connection connection, String table) {
-    final List<String> columnNames = getNumericColumnNames(connection, table);
+  private List<Column> getColumnsOfTable(
+      Connection connection, String table, List<ColumnMeta> columnMetas) {
+    final List<String> columnNames = getNumericColumnNames(columnMetas);
 
     try (PreparedStatement statement =
         connection.prepareStatement(toSql(getSelectMinMax(table, columnNames)))) {
@@ -231,14 +363,77 @@ public abstract class AbstractDriver implements DbDriver {
     }
   }
 
-  private SqlNodeList getSelectColumns(Connection connection, String table) {
-    final List<SqlIdentifier> identifiers = getColumnMetas(connection, table).stream()
+  /**
+   * Reads min and max of the numeric columns of each partition, which are used to skip partitions
+   * that cannot match a predicate.
+   */
+  protected List<PartitionColumn> getPartitionColumns(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
+    final List<String> columnNames = getNumericColumnNames(columnMetas);
+    final List<PartitionColumn> columns = new ArrayList<>();
+    if (columnNames.isEmpty()) {
+      return columns;
+    }
+
+    try (Statement statement = connection.createStatement()) {
+      for (int i = 0; i < partitions; i++) {
+        final List<String> partitionTables = Collections.singletonList(getPartitionTable(table, i));
+        final String sql = toSql(getSelectMinMax(partitionTables.get(0), columnNames));
+
+        openPartitions(connection, partitionTables);
+        try (ResultSet result = statement.executeQuery(sql)) {
+          if (result.next()) {
+            columns.addAll(getPartitionColumns(table, i, columnNames, result, 1));
+          }
+        } finally {
+          closePartitions(connection, partitionTables);
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+    return columns;
+  }
+
+  /**
+   * Bounds are stored as integers, so the min is rounded down and the max is rounded up. The bounds
+   * of floating point columns are wider than their values, but never exclude one of them.
+   *
+   * @param offset position of the min of the first column, followed by its max and the other
+   *     columns
+   */
+  protected final List<PartitionColumn> getPartitionColumns(
+      String table, int partition, List<String> columnNames, ResultSet result, int offset)
+      throws SQLException {
+    final List<PartitionColumn> columns = new ArrayList<>();
+
+    for (int i = 0; i < columnNames.size(); i++) {
+      final int pos = offset + i * 2;
+      final BigDecimal min = result.getBigDecimal(pos);
+      final BigDecimal max = result.getBigDecimal(pos + 1);
+
+      // partitions without values have no bounds
+      if (min != null && max != null) {
+        columns.add(
+            new PartitionColumn(
+                table,
+                partition,
+                columnNames.get(i),
+                min.setScale(0, RoundingMode.FLOOR).longValue(),
+                max.setScale(0, RoundingMode.CEILING).longValue()));
+      }
+    }
+    return columns;
+  }
+
+  protected final SqlNodeList getSelectColumns(List<ColumnMeta> columnMetas) {
+    final List<SqlIdentifier> identifiers = columnMetas.stream()
         .map(c -> SqlUtils.getIdentifier(c.getName())).collect(Collectors.toList());
     return new SqlNodeList(identifiers, SqlParserPos.ZERO);
   }
 
-  private List<String> getNumericColumnNames(Connection connection, String table) {
-    return getColumnMetas(connection, table).stream().filter(c -> {
+  protected final List<String> getNumericColumnNames(List<ColumnMeta> columnMetas) {
+    return columnMetas.stream().filter(c -> {
       switch (c.getSqlType()) {
         case Types.TINYINT:
         case Types.SMALLINT:
@@ -254,6 +449,11 @@ public abstract class AbstractDriver implements DbDriver {
     }).map(ColumnMeta::getName).collect(Collectors.toList());
   }
 
+  private List<ColumnMeta> getColumnMetas(
+      Connection connection, String table, Map<String, List<ColumnMeta>> columnMetas) {
+    return columnMetas.computeIfAbsent(table, t -> getColumnMetas(connection, t));
+  }
+
   protected List<ColumnMeta> getColumnMetas(Connection connection, String table) {
     try (PreparedStatement statement =
         connection.prepareStatement(toSql(getSelectAll(table)))) {
@@ -273,7 +473,7 @@ public abstract class AbstractDriver implements DbDriver {
     }
   }
 
-  private SqlSelect getSelectMinMax(String table, List<String> columnNames) {
+  protected final SqlSelect getSelectMinMax(String table, List<String> columnNames) {
     final SqlNodeList selectList = new SqlNodeList(SqlParserPos.ZERO);
     for (String columnName : columnNames) {
       selectList.add(createAggregator(SqlStdOperatorTable.MIN, columnName));
@@ -297,26 +497,21 @@ public abstract class AbstractDriver implements DbDriver {
     }
   }
 
-  private List<Partition> getPartitions(
-      Connection connection, String table, long partitionCount, boolean isFact) {
+  private List<Partition> getPartitions(String table, long[] entries, boolean isFact) {
     final List<Partition> partitions = new ArrayList<>();
-    for (int i = 0; i < partitionCount; i++) {
+    for (int i = 0; i < entries.length; i++) {
       final String partitionName = getPartitionTable(table, i);
       final Partition partition = new Partition();
       partition.setSrcTable(table);
       partition.setTableName(partitionName);
       partition.setId(i);
-      partition.setEntries(getPartitionEntries(connection, table, i));
+      partition.setEntries(entries[i]);
       partition.setFact(isFact);
       partitions.add(partition);
     }
     return partitions;
   }
 
-  protected long getPartitionEntries(Connection connection, String table, int partition) {
-    return getCount(connection, getPartitionTable(table, partition), null);
-  }
-
   protected final long getCount(Connection connection, String table) {
     return getCount(connection, table, null);
   }
@@ -481,7 +676,8 @@ public abstract class AbstractDriver implements DbDriver {
   }
 
   private String getAggregationColumn(Connection connection, String table) {
-    final Optional<String> column = getNumericColumnNames(connection, table).stream().findAny();
+    final Optional<String> column =
+        getNumericColumnNames(getColumnMetas(connection, table)).stream().findAny();
     if (!column.isPresent()) {
       throw new IllegalArgumentException("no aggregation column found: " + table);
     }
@@ -557,6 +753,8 @@ public abstract class AbstractDriver implements DbDriver {
 
     private int partitionSize = -1;
 
+    private long dimensionSize = -1;
+
     public Builder(SqlDialect dialect) {
       this.dialect = dialect;
     }
@@ -566,11 +764,20 @@ public abstract class AbstractDriver implements DbDriver {
       return (B) this;
     }
 
+    /**
+     * Joined tables with at most this many rows are not split, a negative size splits all tables.
+     */
+    public B dimensionSize(long dimensionSize) {
+      this.dimensionSize = dimensionSize;
+      return (B) this;
+    }
+
     public abstract D build();
 
     protected D build(D driver) {
       ((AbstractDriver) driver).dialect = dialect;
       ((AbstractDriver) driver).partitionSize = partitionSize;
+      ((AbstractDriver) driver).dimensionSize = dimensionSize;
       return driver;
     }
   }
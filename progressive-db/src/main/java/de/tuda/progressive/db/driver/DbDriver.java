@@ -5,6 +5,8 @@ import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.type.SqlTypeName;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
 
 public interface DbDriver {
 
@@ -21,4 +23,22 @@ public interface DbDriver {
   boolean hasUpsert();
 
   boolean hasPartitions();
+
+  /**
+   * Lets the statement fetch its results in chunks of fetchSize rows instead of materializing them
+   * at once. The connection is used exclusively for reading partitions.
+   */
+  void prepareStreaming(Connection connection, PreparedStatement statement, int fetchSize);
+
+  /**
+   * Makes the partition tables readable on the connection, e.g. if they are not stored in the
+   * source database itself. Only used if the driver has no partitions column.
+   */
+  void openPartitions(Connection connection, List<String> partitionTables);
+
+  /**
+   * Reverts {@link #openPartitions(Connection, List)}, statements reading the partition tables
+   * have to be closed before.
+   */
+  void closePartitions(Connection connection, List<String> partitionTables);
 }
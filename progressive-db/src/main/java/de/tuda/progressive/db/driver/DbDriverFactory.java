@@ -1,5 +1,6 @@
 package de.tuda.progressive.db.driver;
 
+import de.tuda.progressive.db.driver.impl.DuckDBDriver;
 import de.tuda.progressive.db.driver.impl.MySQLDriver;
 import de.tuda.progressive.db.driver.impl.PostgreSQLDriver;
 import de.tuda.progressive.db.driver.impl.SQLiteDriver;
@@ -9,16 +10,39 @@ public class DbDriverFactory {
   private static final int PREFIX_LEN = "jdbc:".length();
 
   public static DbDriver create(String url) {
-    final String driver = url.substring(PREFIX_LEN, url.indexOf(":", PREFIX_LEN));
-    switch (driver.toUpperCase()) {
+    final String driver = getName(url);
+    switch (driver) {
       case "POSTGRESQL":
         return new PostgreSQLDriver.Builder().build();
       case "SQLITE":
         return new SQLiteDriver.Builder().build();
       case "MYSQL":
         return new MySQLDriver.Builder().build();
+      case "DUCKDB":
+        return new DuckDBDriver.Builder().build();
     }
 
     throw new IllegalArgumentException("driver not supported: " + driver);
   }
+
+  /**
+   * @param partitionDirectory directory which stores a database file per partition table, null to
+   *     store the partitions in the source database
+   */
+  public static DbDriver create(String url, String partitionDirectory) {
+    if (partitionDirectory == null) {
+      return create(url);
+    }
+
+    final String driver = getName(url);
+    if ("SQLITE".equals(driver)) {
+      return new SQLiteDriver.Builder().partitionDirectory(partitionDirectory).build();
+    }
+
+    throw new IllegalArgumentException("partition directory not supported by driver: " + driver);
+  }
+
+  private static String getName(String url) {
+    return url.substring(PREFIX_LEN, url.indexOf(":", PREFIX_LEN)).toUpperCase();
+  }
 }
@@ -1,18 +1,22 @@
 package de.tuda.progressive.db.driver;
 
 import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.model.ColumnMeta;
+import de.tuda.progressive.db.model.PartitionColumn;
 import de.tuda.progressive.db.util.SqlUtils;
-import org.apache.calcite.sql.SqlBasicCall;
 import org.apache.calcite.sql.SqlDialect;
-import org.apache.calcite.sql.SqlLiteral;
 import org.apache.calcite.sql.SqlNode;
-import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.SqlSelect;
 import org.apache.calcite.sql.parser.SqlParserPos;
 import org.apache.calcite.sql.type.SqlTypeName;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class PartitionDriver extends AbstractDriver {
 
@@ -21,60 +25,95 @@ public abstract class PartitionDriver extends AbstractDriver {
 
   private static final String INSERT_ALL_TPL = "insert into %s %s";
 
+  private static final String COUNT_PARTITIONS_TPL =
+      "select %1$s, count(*) from %2$s group by %1$s";
+
   private boolean hasPartitions;
 
   @Override
-  protected void createPartitions(Connection connection, String table, long partitions) {
+  protected void createPartitions(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
     if (hasPartitions()) {
       dropTable(connection, getPartitionTable(table));
       createPartitionTable(connection, table, partitions);
     } else {
-      super.createPartitions(connection, table, partitions);
+      super.createPartitions(connection, table, partitions, columnMetas);
     }
   }
 
   protected abstract void createPartitionTable(Connection connection, String table, long partitions);
 
   @Override
-  protected long getPartitionEntries(Connection connection, String table, int partition) {
+  protected long[] insertData(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
     if (hasPartitions()) {
-      return getCount(connection, getPartitionTable(table), partition);
+      final String template = String.format(getSelectTemplate(), partitions, table);
+      final String targetTable = getPartitionTable(table);
+
+      insertData(connection, template, targetTable);
+      return getPartitionEntries(connection, targetTable, partitions);
     } else {
-      return super.getPartitionEntries(connection, table, partition);
+      return super.insertData(connection, table, partitions, columnMetas);
     }
   }
 
-  private long getCount(Connection connection, String table, int partition) {
-    final SqlNode where =
-        new SqlBasicCall(
-            SqlStdOperatorTable.EQUALS,
-            new SqlNode[] {
-              SqlUtils.getIdentifier(PART_COLUMN_NAME),
-              SqlLiteral.createExactNumeric(String.valueOf(partition), SqlParserPos.ZERO)
-            },
-            SqlParserPos.ZERO);
-
-    return getCount(connection, table, where);
+  private void insertData(Connection connection, String template, String targetTable) {
+    try (Statement statement = connection.createStatement()) {
+      final String sql = String.format(INSERT_ALL_TPL, targetTable, template);
+
+      statement.execute(sql);
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
   }
 
   @Override
-  protected void insertData(Connection connection, String table, long partitions) {
-    if (hasPartitions()) {
-      final String template = String.format(getSelectTemplate(), partitions, table);
-      insertData(connection, template, getPartitionTable(table));
-    } else {
-      super.insertData(connection, table, partitions);
+  protected List<PartitionColumn> getPartitionColumns(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
+    if (!hasPartitions()) {
+      return super.getPartitionColumns(connection, table, partitions, columnMetas);
+    }
+
+    final List<String> columnNames = getNumericColumnNames(columnMetas);
+    final List<PartitionColumn> columns = new ArrayList<>();
+    if (columnNames.isEmpty()) {
+      return columns;
     }
+
+    final SqlSelect select = getSelectMinMax(getPartitionTable(table), columnNames);
+    final SqlNodeList selectList = new SqlNodeList(SqlParserPos.ZERO);
+    selectList.add(SqlUtils.getIdentifier(PART_COLUMN_NAME));
+    select.getSelectList().forEach(selectList::add);
+    select.setSelectList(selectList);
+    select.setGroupBy(SqlNodeList.of(SqlUtils.getIdentifier(PART_COLUMN_NAME)));
+
+    try (Statement statement = connection.createStatement()) {
+      try (ResultSet result = statement.executeQuery(toSql(select))) {
+        while (result.next()) {
+          columns.addAll(getPartitionColumns(table, result.getInt(1), columnNames, result, 2));
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+    return columns;
   }
 
-  private void insertData(Connection connection, String template, String targetTable) {
+  private long[] getPartitionEntries(Connection connection, String table, long partitions) {
+    final long[] entries = new long[(int) partitions];
+
     try (Statement statement = connection.createStatement()) {
-      final String sql = String.format(INSERT_ALL_TPL, targetTable, template);
+      final String sql = String.format(COUNT_PARTITIONS_TPL, PART_COLUMN_NAME, table);
 
-      statement.execute(sql);
+      try (ResultSet result = statement.executeQuery(sql)) {
+        while (result.next()) {
+          entries[result.getInt(1)] = result.getLong(2);
+        }
+      }
     } catch (SQLException e) {
       throw new ProgressiveException(e);
     }
+    return entries;
   }
 
   @Override
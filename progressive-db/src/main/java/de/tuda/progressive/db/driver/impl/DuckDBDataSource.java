@@ -0,0 +1,62 @@
+package de.tuda.progressive.db.driver.impl;
+
+import de.tuda.progressive.db.util.SqlUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.ConnectionFactory;
+import org.duckdb.DuckDBConnection;
+
+/**
+ * Pool of connections to one DuckDB instance. Every connection opened by the url starts a new
+ * instance, which is empty for in-memory databases and locks the file of others, hence the pooled
+ * connections are duplicates of a single connection.
+ */
+public class DuckDBDataSource extends BasicDataSource {
+
+  public static final String URL_PREFIX = "jdbc:duckdb:";
+
+  private final Properties properties = new Properties();
+
+  private DuckDBConnection instance;
+
+  public static boolean accepts(String url) {
+    return url != null && url.startsWith(URL_PREFIX);
+  }
+
+  @Override
+  public void addConnectionProperty(String name, String value) {
+    super.addConnectionProperty(name, value);
+    properties.setProperty(name, value);
+  }
+
+  @Override
+  protected ConnectionFactory createConnectionFactory() {
+    return this::duplicate;
+  }
+
+  private synchronized Connection duplicate() throws SQLException {
+    if (instance == null) {
+      final Connection connection = DriverManager.getConnection(getUrl(), properties);
+      try {
+        instance = connection.unwrap(DuckDBConnection.class);
+      } catch (SQLException e) {
+        SqlUtils.closeSafe(connection);
+        throw e;
+      }
+    }
+    return instance.duplicate();
+  }
+
+  @Override
+  public synchronized void close() throws SQLException {
+    try {
+      super.close();
+    } finally {
+      SqlUtils.closeSafe(instance);
+      instance = null;
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package de.tuda.progressive.db.driver.impl;
+
+import de.tuda.progressive.db.driver.PartitionDriver;
+import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.util.SqlUtils;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.calcite.sql.SqlBasicCall;
+import org.apache.calcite.sql.SqlDialect;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.ddl.SqlCreateTable;
+import org.apache.calcite.sql.dialect.PostgresqlSqlDialect;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.parser.SqlParserPos;
+
+/**
+ * Driver of the embedded, columnar DuckDB, which can be used as source and as buffer. Partitions
+ * are stored in a single table ordered by the partition column, so the min/max indexes of its row
+ * groups skip all other partitions when one is read.
+ */
+public class DuckDBDriver extends PartitionDriver {
+
+  private static final SqlDialect SQL_DIALECT =
+      new PostgresqlSqlDialect(
+          PostgresqlSqlDialect.EMPTY_CONTEXT.withDatabaseProduct(
+              SqlDialect.DatabaseProduct.POSTGRESQL));
+
+  private static final int PARTITION_SIZE = 500000;
+
+  private static final long DIMENSION_SIZE = 1000000;
+
+  private static final String SELECT_TPL =
+      "select t.*, (row_number() over() %% %d) row_number from %s t order by row_number";
+
+  private static final String FOREIGN_KEYS_SQL =
+      "select constraint_text from duckdb_constraints() "
+          + "where table_name = ? and constraint_type = 'FOREIGN KEY'";
+
+  private static final Pattern FOREIGN_KEY_PATTERN =
+      Pattern.compile("FOREIGN KEY \\((.+)\\) REFERENCES (.+)\\((.+)\\)");
+
+  private DuckDBDriver() {}
+
+  @Override
+  public String getPartitionTable(String table) {
+    return table + PART_COLUMN_NAME;
+  }
+
+  @Override
+  protected void createPartitionTable(Connection connection, String table, long partitions) {
+    try (PreparedStatement srcStatement = connection.prepareStatement(toSql(getSelectAll(table)))) {
+      final ResultSetMetaData metaData = srcStatement.getMetaData();
+      final SqlCreateTable createTable =
+          SqlUtils.createTable(this, metaData, null, getPartitionTable(table), PART_COLUMN);
+
+      try (Statement destStatement = connection.createStatement()) {
+        destStatement.execute(toSql(createTable));
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  protected String getSelectTemplate() {
+    return SELECT_TPL;
+  }
+
+  @Override
+  public boolean hasUpsert() {
+    return true;
+  }
+
+  /**
+   * The JDBC driver does not return imported keys, they are read from the constraints instead.
+   */
+  @Override
+  protected Set<String> getForeignTables(Connection connection, String baseTable) {
+    return getForeignKeys(connection, baseTable).stream()
+        .map(ForeignKey::getPkTable)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  protected List<SqlBasicCall> getJoins(Connection connection, String baseTable) {
+    return getForeignKeys(connection, baseTable).stream()
+        .map(
+            key ->
+                new SqlBasicCall(
+                    SqlStdOperatorTable.EQUALS,
+                    new SqlNode[] {
+                      SqlUtils.getIdentifier(baseTable, key.getFkColumn()),
+                      SqlUtils.getIdentifier(key.getPkTable(), key.getPkColumn())
+                    },
+                    SqlParserPos.ZERO))
+        .collect(Collectors.toList());
+  }
+
+  private List<ForeignKey> getForeignKeys(Connection connection, String baseTable) {
+    final List<ForeignKey> foreignKeys = new ArrayList<>();
+
+    try (PreparedStatement statement = connection.prepareStatement(FOREIGN_KEYS_SQL)) {
+      statement.setString(1, baseTable);
+
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          foreignKeys.addAll(parseForeignKey(result.getString(1)));
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+    return foreignKeys;
+  }
+
+  private List<ForeignKey> parseForeignKey(String constraint) {
+    final Matcher matcher = FOREIGN_KEY_PATTERN.matcher(constraint);
+    if (!matcher.matches()) {
+      throw new IllegalStateException("foreign key cannot be parsed: " + constraint);
+    }
+
+    final String[] fkColumns = parseColumns(matcher.group(1));
+    final String pkTable = unquote(matcher.group(2).trim());
+    final String[] pkColumns = parseColumns(matcher.group(3));
+
+    final List<ForeignKey> foreignKeys = new ArrayList<>();
+    for (int i = 0; i < fkColumns.length; i++) {
+      foreignKeys.add(new ForeignKey(fkColumns[i], pkTable, pkColumns[i]));
+    }
+    return foreignKeys;
+  }
+
+  private String[] parseColumns(String columns) {
+    return Arrays.stream(columns.split(",")).map(c -> unquote(c.trim())).toArray(String[]::new);
+  }
+
+  private String unquote(String identifier) {
+    if (identifier.length() > 1 && identifier.startsWith("\"") && identifier.endsWith("\"")) {
+      return identifier.substring(1, identifier.length() - 1).replace("\"\"", "\"");
+    }
+    return identifier;
+  }
+
+  private static class ForeignKey {
+
+    private final String fkColumn;
+
+    private final String pkTable;
+
+    private final String pkColumn;
+
+    private ForeignKey(String fkColumn, String pkTable, String pkColumn) {
+      this.fkColumn = fkColumn;
+      this.pkTable = pkTable;
+      this.pkColumn = pkColumn;
+    }
+
+    String getFkColumn() {
+      return fkColumn;
+    }
+
+    String getPkTable() {
+      return pkTable;
+    }
+
+    String getPkColumn() {
+      return pkColumn;
+    }
+  }
+
+  public static class Builder extends PartitionDriver.Builder<DuckDBDriver, Builder> {
+
+    public Builder() {
+      this(SQL_DIALECT);
+    }
+
+    public Builder(SqlDialect dialect) {
+      super(dialect);
+      partitionSize(PARTITION_SIZE);
+      dimensionSize(DIMENSION_SIZE);
+      hasPartitions(true);
+    }
+
+    @Override
+    public DuckDBDriver build() {
+      return build(new DuckDBDriver());
+    }
+  }
+}
@@ -23,6 +23,8 @@ public class MySQLDriver extends PartitionDriver {
 
   private static final int PARTITION_SIZE = 500000;
 
+  private static final long DIMENSION_SIZE = 1000000;
+
   private static final String PART_DEF =
       String.format("partition by list(%s) (%%s)", PART_COLUMN_NAME);
   private static final String PART_SINGLE_TPL = "partition %s values in (%d)";
@@ -40,6 +42,12 @@ public class MySQLDriver extends PartitionDriver {
     return sql.replaceAll("BETWEEN ASYMMETRIC", "BETWEEN");
   }
 
+  @Override
+  public void prepareStreaming(Connection connection, PreparedStatement statement, int fetchSize) {
+    // without useCursorFetch the driver only streams row by row
+    super.prepareStreaming(connection, statement, Integer.MIN_VALUE);
+  }
+
   @Override
   public String getPartitionTable(String table) {
     return table + PART_COLUMN_NAME;
@@ -88,6 +96,7 @@ public class MySQLDriver extends PartitionDriver {
     public Builder(SqlDialect dialect) {
       super(dialect);
       partitionSize(PARTITION_SIZE);
+      dimensionSize(DIMENSION_SIZE);
       hasPartitions(true);
     }
 
@@ -25,6 +25,8 @@ public class PostgreSQLDriver extends PartitionDriver {
 
   private static final int PARTITION_SIZE = 500000;
 
+  private static final long DIMENSION_SIZE = 1000000;
+
   private PostgreSQLDriver() {}
 
   private static final String PART_DEF = String.format("partition by list(%s)", PART_COLUMN_NAME);
@@ -51,6 +53,18 @@ public class PostgreSQLDriver extends PartitionDriver {
     }
   }
 
+  @Override
+  public void prepareStreaming(Connection connection, PreparedStatement statement, int fetchSize) {
+    try {
+      // the driver only uses a cursor inside of a transaction
+      connection.setAutoCommit(false);
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+
+    super.prepareStreaming(connection, statement, fetchSize);
+  }
+
   @Override
   protected String getSelectTemplate() {
     return SELECT_TPL;
@@ -95,6 +109,7 @@ public class PostgreSQLDriver extends PartitionDriver {
     public Builder(SqlDialect dialect) {
       super(dialect);
       partitionSize(PARTITION_SIZE);
+      dimensionSize(DIMENSION_SIZE);
       hasPartitions(true);
     }
 
@@ -4,16 +4,21 @@ import de.tuda.progressive.db.driver.AbstractDriver;
 import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.exception.ProgressiveException;
 import de.tuda.progressive.db.model.ColumnMeta;
+import de.tuda.progressive.db.util.SqlUtils;
+import java.io.File;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.calcite.sql.SqlDialect;
+import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.calcite.sql.dialect.AnsiSqlDialect;
 import org.apache.calcite.sql.type.SqlTypeName;
 
@@ -30,6 +35,21 @@ public class SQLiteDriver extends AbstractDriver {
 
   private static final String INSERT_ALL_TPL = "insert into %s %s";
 
+  private static final String INSERT_PART_TPL =
+      "insert into %s (%s) select %s from (%s) t where row_number = %d";
+
+  private static final String ATTACH_TPL = "attach database ? as %s";
+
+  private static final String DETACH_TPL = "detach database %s";
+
+  private static final String PARTITION_FILE_SUFFIX = ".db";
+
+  /**
+   * Directory which contains a database file per partition table, null if the partitions are
+   * stored in the source database.
+   */
+  private File partitionDirectory;
+
   private SQLiteDriver() {
   }
 
@@ -95,6 +115,152 @@ public class SQLiteDriver extends AbstractDriver {
     return false;
   }
 
+  /**
+   * Creates each partition table in its own database file, which is attached as a schema of the
+   * same name while the partition is written or read.
+   */
+  @Override
+  protected void createPartitions(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
+    if (partitionDirectory == null) {
+      super.createPartitions(connection, table, partitions, columnMetas);
+      return;
+    }
+
+    if (!partitionDirectory.isDirectory() && !partitionDirectory.mkdirs()) {
+      throw new IllegalStateException("could not create directory: " + partitionDirectory);
+    }
+
+    try (Statement statement = connection.createStatement()) {
+      for (int i = 0; i < partitions; i++) {
+        final String partitionTable = getPartitionTable(table, i);
+        final File file = getPartitionFile(partitionTable);
+
+        // a table of the same name in the source database would hide the attached one
+        dropTable(connection, partitionTable);
+        if (file.exists() && !file.delete()) {
+          throw new IllegalStateException("could not delete partition: " + file);
+        }
+
+        final List<String> partitionTables = Collections.singletonList(partitionTable);
+        openPartitions(connection, partitionTables);
+        try {
+          statement.execute(
+              toSql(SqlUtils.createTable(this, columnMetas, getQualifiedTable(partitionTable))));
+        } finally {
+          closePartitions(connection, partitionTables);
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  /**
+   * Only a few databases can be attached at once, so the partitions are filled one after the other
+   * instead of routing the rows of a single pass. Each pass is executed by SQLite itself.
+   */
+  @Override
+  protected long[] insertData(
+      Connection connection, String table, long partitions, List<ColumnMeta> columnMetas) {
+    if (partitionDirectory == null) {
+      return super.insertData(connection, table, partitions, columnMetas);
+    }
+
+    final String columnList = toSql(getSelectColumns(columnMetas));
+    final String template = String.format(getSelectTemplate(), partitions, table);
+    final long[] entries = new long[(int) partitions];
+
+    try (Statement statement = connection.createStatement()) {
+      for (int i = 0; i < partitions; i++) {
+        final String partitionTable = getPartitionTable(table, i);
+        final List<String> partitionTables = Collections.singletonList(partitionTable);
+        final String sql =
+            String.format(
+                INSERT_PART_TPL,
+                toSql(getQualifiedTable(partitionTable)),
+                columnList,
+                columnList,
+                template,
+                i);
+
+        openPartitions(connection, partitionTables);
+        try {
+          entries[i] = statement.executeUpdate(sql);
+        } finally {
+          closePartitions(connection, partitionTables);
+        }
+      }
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+    return entries;
+  }
+
+  @Override
+  public void openPartitions(Connection connection, List<String> partitionTables) {
+    if (partitionDirectory == null) {
+      return;
+    }
+
+    final List<String> attached = new ArrayList<>();
+    try {
+      for (String partitionTable : partitionTables) {
+        final String sql = String.format(ATTACH_TPL, toSql(SqlUtils.getIdentifier(partitionTable)));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+          statement.setString(1, getPartitionFile(partitionTable).getPath());
+          statement.execute();
+        }
+        attached.add(partitionTable);
+      }
+    } catch (SQLException e) {
+      try {
+        closePartitions(connection, attached);
+      } catch (ProgressiveException e2) {
+        e.addSuppressed(e2);
+      }
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public void closePartitions(Connection connection, List<String> partitionTables) {
+    if (partitionDirectory == null) {
+      return;
+    }
+
+    SQLException error = null;
+    try (Statement statement = connection.createStatement()) {
+      for (String partitionTable : partitionTables) {
+        try {
+          statement.execute(
+              String.format(DETACH_TPL, toSql(SqlUtils.getIdentifier(partitionTable))));
+        } catch (SQLException e) {
+          // detach the remaining partitions anyway
+          if (error == null) {
+            error = e;
+          } else {
+            error.addSuppressed(e);
+          }
+        }
+      }
+    } catch (SQLException e) {
+      error = e;
+    }
+
+    if (error != null) {
+      throw new ProgressiveException(error);
+    }
+  }
+
+  private File getPartitionFile(String partitionTable) {
+    return new File(partitionDirectory, partitionTable + PARTITION_FILE_SUFFIX);
+  }
+
+  private SqlIdentifier getQualifiedTable(String partitionTable) {
+    return SqlUtils.getIdentifier(partitionTable, partitionTable);
+  }
+
   @Override
   public boolean hasUpsert() {
     return true;
@@ -106,13 +272,26 @@ public class SQLiteDriver extends AbstractDriver {
       this(SQL_DIALECT);
     }
 
+    private String partitionDirectory;
+
     public Builder(SqlDialect dialect) {
       super(dialect);
     }
 
+    /**
+     * Stores each partition table in its own database file in the directory, so partitions can be
+     * read by several connections without sharing a database file.
+     */
+    public Builder partitionDirectory(String partitionDirectory) {
+      this.partitionDirectory = partitionDirectory;
+      return this;
+    }
+
     @Override
     public SQLiteDriver build() {
-      return build(new SQLiteDriver());
+      final SQLiteDriver driver = build(new SQLiteDriver());
+      driver.partitionDirectory = partitionDirectory == null ? null : new File(partitionDirectory);
+      return driver;
     }
   }
 }
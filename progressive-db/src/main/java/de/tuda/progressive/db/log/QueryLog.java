@@ -0,0 +1,225 @@
+package de.tuda.progressive.db.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the partition reads of all queries to a file, one record per line. Records are queued in
+ * a lock-free buffer and written by a background thread, so logging never blocks the reading
+ * threads. Records are dropped if the writer cannot keep up. The file is rotated once it exceeds
+ * the max. size or the rotation interval passed, rotated files get the suffixes .1 (newest) to .n
+ * (oldest).
+ */
+public class QueryLog implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryLog.class);
+
+  public static final String DEFAULT_PATH = System.getProperty("user.home") + "/progressive-db.log";
+
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+  public static final int DEFAULT_MAX_FILES = 5;
+
+  private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private static QueryLog instance;
+
+  private final File file;
+
+  private final long maxSize;
+
+  private final long rotateInterval;
+
+  private final int maxFiles;
+
+  private final RingBuffer<QueryLogRecord> buffer;
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final Thread thread;
+
+  private volatile boolean running = true;
+
+  private Writer writer;
+
+  private long size;
+
+  private long nextRotation;
+
+  /**
+   * Log of the server, which is written to {@link #DEFAULT_PATH}.
+   */
+  public static synchronized QueryLog getInstance() {
+    if (instance == null) {
+      instance =
+          new QueryLog(
+              new File(DEFAULT_PATH), DEFAULT_CAPACITY, DEFAULT_MAX_SIZE, 0, DEFAULT_MAX_FILES);
+    }
+    return instance;
+  }
+
+  /**
+   * @param capacity max. number of records which wait to be written
+   * @param maxSize size in bytes after which the file is rotated, 0 to ignore the size
+   * @param rotateInterval time in milliseconds after which the file is rotated, 0 to ignore the
+   *     time
+   * @param maxFiles number of rotated files which are kept
+   */
+  public QueryLog(File file, int capacity, long maxSize, long rotateInterval, int maxFiles) {
+    this.file = file;
+    this.buffer = new RingBuffer<>(capacity);
+    this.maxSize = maxSize;
+    this.rotateInterval = rotateInterval;
+    this.maxFiles = maxFiles;
+
+    if (file.length() > 0) {
+      // keep the log of the previous run
+      rotateFiles();
+    }
+    open();
+
+    this.thread = new Thread(this::run, "progressive-query-log");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  public void log(QueryLogRecord record) {
+    if (!buffer.offer(record)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Number of records which were not written, because the buffer was full.
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  private void run() {
+    while (running) {
+      if (drain() == 0) {
+        LockSupport.parkNanos(IDLE_WAIT);
+      }
+    }
+    drain();
+  }
+
+  private int drain() {
+    final int count = buffer.drain(this::write);
+
+    try {
+      if (count > 0 && writer != null) {
+        writer.flush();
+      }
+    } catch (IOException e) {
+      log.warn("could not write query log", e);
+    }
+
+    if ((maxSize > 0 && size >= maxSize)
+        || (rotateInterval > 0 && System.currentTimeMillis() >= nextRotation)) {
+      rotate();
+    }
+    return count;
+  }
+
+  private void write(QueryLogRecord record) {
+    if (writer == null) {
+      return;
+    }
+
+    final String line = record.format();
+    try {
+      writer.write(line);
+      writer.write('\n');
+      size += line.length() + 1;
+    } catch (IOException e) {
+      log.warn("could not write query log", e);
+    }
+  }
+
+  private void rotate() {
+    close(writer);
+    rotateFiles();
+    open();
+  }
+
+  private void rotateFiles() {
+    try {
+      for (int i = maxFiles - 1; i >= 1; i--) {
+        final File rotated = getRotatedFile(i);
+        if (rotated.exists()) {
+          Files.move(
+              rotated.toPath(),
+              getRotatedFile(i + 1).toPath(),
+              StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+
+      if (maxFiles > 0) {
+        Files.move(
+            file.toPath(), getRotatedFile(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.deleteIfExists(file.toPath());
+      }
+    } catch (IOException e) {
+      log.warn("could not rotate query log", e);
+    }
+  }
+
+  private File getRotatedFile(int index) {
+    return new File(file.getPath() + "." + index);
+  }
+
+  private void open() {
+    try {
+      writer =
+          new BufferedWriter(
+              new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+      size = file.length();
+    } catch (IOException e) {
+      log.warn("could not open query log {}", file, e);
+      writer = null;
+    }
+    nextRotation = System.currentTimeMillis() + rotateInterval;
+  }
+
+  private void close(Writer writer) {
+    if (writer == null) {
+      return;
+    }
+
+    try {
+      writer.close();
+    } catch (IOException e) {
+      log.warn("could not close query log", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(thread);
+
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    close(writer);
+  }
+}
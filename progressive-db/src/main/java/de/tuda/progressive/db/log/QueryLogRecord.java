@@ -0,0 +1,74 @@
+package de.tuda.progressive.db.log;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read of a single partition. The sql is rendered by the writer thread, so creating a record only
+ * copies references.
+ */
+public class QueryLogRecord {
+
+  private final long timestamp;
+
+  private final long queryId;
+
+  private final int partition;
+
+  private final SqlTemplate sql;
+
+  private final int[] parameters;
+
+  private final long latency;
+
+  private final long entries;
+
+  /**
+   * @param partition number of the partition combination of the query
+   * @param sql sql which is executed, its parameters are filled in by the writer thread
+   * @param parameters partition ids the sql is executed with
+   * @param latency time in nanoseconds to read and merge the partition
+   * @param entries entries of the partition of the fact table according to the meta data, -1 if
+   *     no fact table is read
+   */
+  public QueryLogRecord(
+      long queryId, int partition, SqlTemplate sql, int[] parameters, long latency, long entries) {
+    this.timestamp = System.currentTimeMillis();
+    this.queryId = queryId;
+    this.partition = partition;
+    this.sql = sql;
+    this.parameters = parameters;
+    this.latency = latency;
+    this.entries = entries;
+  }
+
+  public long getQueryId() {
+    return queryId;
+  }
+
+  public int getPartition() {
+    return partition;
+  }
+
+  public long getLatency() {
+    return latency;
+  }
+
+  public long getEntries() {
+    return entries;
+  }
+
+  String format() {
+    return Instant.ofEpochMilli(timestamp)
+        + " query="
+        + queryId
+        + " partition="
+        + partition
+        + " latency="
+        + TimeUnit.NANOSECONDS.toMillis(latency)
+        + "ms entries="
+        + entries
+        + " sql="
+        + sql.render(parameters);
+  }
+}
@@ -0,0 +1,73 @@
+package de.tuda.progressive.db.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Producers never wait, an
+ * element is rejected if the buffer is full.
+ */
+class RingBuffer<T> {
+
+  private final AtomicReferenceArray<T> slots;
+
+  private final int capacity;
+
+  private final AtomicLong head = new AtomicLong();
+
+  private final AtomicLong tail = new AtomicLong();
+
+  RingBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return false if the buffer is full
+   */
+  boolean offer(T element) {
+    while (true) {
+      final long position = tail.get();
+      if (position - head.get() >= capacity) {
+        return false;
+      }
+      if (tail.compareAndSet(position, position + 1)) {
+        slots.lazySet(index(position), element);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Passes all published elements to the consumer, must only be called by a single thread.
+   *
+   * @return number of consumed elements
+   */
+  int drain(Consumer<T> consumer) {
+    int count = 0;
+    long position = head.get();
+
+    while (true) {
+      final int index = index(position);
+      final T element = slots.get(index);
+      if (element == null) {
+        // empty or the producer did not publish the element yet
+        return count;
+      }
+
+      slots.lazySet(index, null);
+      head.lazySet(++position);
+      consumer.accept(element);
+      count++;
+    }
+  }
+
+  private int index(long position) {
+    return (int) (position % capacity);
+  }
+}
@@ -0,0 +1,30 @@
+package de.tuda.progressive.db.log;
+
+/**
+ * Sql with positional parameters, split once so parameters can be filled in without parsing the
+ * sql again. Line breaks are removed, so every statement occupies a single line of the log.
+ */
+public class SqlTemplate {
+
+  private final String sql;
+
+  private final String[] parts;
+
+  public SqlTemplate(String sql) {
+    this.sql = sql;
+    this.parts = sql.replace("\r\n", " ").replace('\n', ' ').split("\\?", -1);
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public String render(int[] parameters) {
+    final StringBuilder builder = new StringBuilder(parts[0]);
+    for (int i = 1; i < parts.length; i++) {
+      builder.append(i - 1 < parameters.length ? String.valueOf(parameters[i - 1]) : "?");
+      builder.append(parts[i]);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,141 @@
+package de.tuda.progressive.db.meta;
+
+import de.tuda.progressive.db.model.Column;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Keeps the partitions and columns read from another {@link MetaData} in memory, so preparing a
+ * query does not need a round trip to the meta database. Entries of a table are invalidated if it
+ * is prepared again or dropped.
+ */
+public class CachingMetaData implements MetaData {
+
+  private final MetaData metaData;
+
+  private final ConcurrentMap<String, List<Partition>> partitions = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<Pair<String, String>, Optional<Column>> columns =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<Pair<String, String>, List<PartitionColumn>> partitionColumns =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  public CachingMetaData(MetaData metaData) {
+    this.metaData = metaData;
+  }
+
+  @Override
+  public void add(
+      List<Partition> partitions, List<Column> columns, List<PartitionColumn> partitionColumns) {
+    metaData.add(partitions, columns, partitionColumns);
+
+    final Set<String> tables =
+        Stream.concat(
+                partitions.stream().map(Partition::getSrcTable),
+                columns.stream().map(Column::getTable))
+            .collect(Collectors.toSet());
+    tables.forEach(this::invalidate);
+  }
+
+  @Override
+  public List<Partition> getPartitions(String table) {
+    final List<Partition> cached = partitions.get(table);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached;
+    }
+
+    misses.incrementAndGet();
+
+    final List<Partition> result = metaData.getPartitions(table);
+    if (result == null) {
+      return null;
+    }
+
+    final List<Partition> immutable = Collections.unmodifiableList(result);
+    partitions.put(table, immutable);
+    return immutable;
+  }
+
+  @Override
+  public List<PartitionColumn> getPartitionColumns(String table, String column) {
+    final Pair<String, String> key = ImmutablePair.of(table, column);
+    final List<PartitionColumn> cached = partitionColumns.get(key);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached;
+    }
+
+    misses.incrementAndGet();
+
+    final List<PartitionColumn> immutable =
+        Collections.unmodifiableList(metaData.getPartitionColumns(table, column));
+    partitionColumns.put(key, immutable);
+    return immutable;
+  }
+
+  @Override
+  public Column getColumn(String table, String column) {
+    final Pair<String, String> key = ImmutablePair.of(table, column);
+    final Optional<Column> cached = columns.get(key);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached.orElse(null);
+    }
+
+    misses.incrementAndGet();
+
+    final Optional<Column> result = Optional.ofNullable(metaData.getColumn(table, column));
+    columns.put(key, result);
+    return result.orElse(null);
+  }
+
+  /**
+   * Removes all entries of the table. Columns which were requested without a table are removed as
+   * well, because they may have been resolved against it.
+   */
+  public void invalidate(String table) {
+    partitions.remove(table);
+    columns
+        .keySet()
+        .removeIf(key -> key.getLeft() == null || Objects.equals(key.getLeft(), table));
+    partitionColumns.keySet().removeIf(key -> Objects.equals(key.getLeft(), table));
+  }
+
+  public void invalidateAll() {
+    partitions.clear();
+    columns.clear();
+    partitionColumns.clear();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public double getHitRate() {
+    final long hits = getHits();
+    final long total = hits + getMisses();
+    return total == 0 ? 0.0 : (double) hits / (double) total;
+  }
+}
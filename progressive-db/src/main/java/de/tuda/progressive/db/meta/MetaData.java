@@ -2,17 +2,30 @@ package de.tuda.progressive.db.meta;
 
 import de.tuda.progressive.db.model.Column;
 import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
 import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Collections;
 import java.util.List;
 
 public interface MetaData {
 
-  void add(List<Partition> partitions, List<Column> columns);
+  default void add(List<Partition> partitions, List<Column> columns) {
+    add(partitions, columns, Collections.emptyList());
+  }
+
+  void add(
+      List<Partition> partitions, List<Column> columns, List<PartitionColumn> partitionColumns);
 
   List<Partition> getPartitions(String table);
 
+  /**
+   * @return bounds of the column in the partitions of the table, partitions without bounds are
+   *     missing
+   */
+  List<PartitionColumn> getPartitionColumns(String table, String column);
+
   Column getColumn(String table, String column);
 
   default Column getColumn(Pair<String, String> key) {
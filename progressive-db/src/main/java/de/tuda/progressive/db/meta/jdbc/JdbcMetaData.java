@@ -3,7 +3,9 @@ package de.tuda.progressive.db.meta.jdbc;
 import de.tuda.progressive.db.meta.MetaData;
 import de.tuda.progressive.db.model.Column;
 import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
 
@@ -16,6 +18,7 @@ public class JdbcMetaData implements MetaData {
 
   private static final String PARTITIONS_TABLE_NAME = "partitions";
   private static final String COLUMNS_TABLE_NAME = "columns";
+  private static final String PARTITION_COLUMNS_TABLE_NAME = "partition_columns";
 
   private static final String CREATE_PARTITIONS_TABLE =
       String.format(
@@ -44,6 +47,20 @@ public class JdbcMetaData implements MetaData {
               + "\n",
           COLUMNS_TABLE_NAME);
 
+  private static final String CREATE_PARTITION_COLUMNS_TABLE =
+      String.format(
+          "create table if not exists %s\n"
+              + "(\n"
+              + "`table` varchar(100),\n"
+              + "`partition` int,\n"
+              + "`name` varchar(100),\n"
+              + "`min` bigint,\n"
+              + "`max` bigint,\n"
+              + "primary key (`table`, `partition`, `name`)\n"
+              + ");\n"
+              + "\n",
+          PARTITION_COLUMNS_TABLE_NAME);
+
   private static final String GET_PARTITIONS =
       String.format(
           "select * from %s where srcTable = :srcTable order by id", PARTITIONS_TABLE_NAME);
@@ -59,6 +76,15 @@ public class JdbcMetaData implements MetaData {
       String.format(
           "select * from %s where `table` = :table and `name` = :name", COLUMNS_TABLE_NAME);
 
+  private static final String ADD_PARTITION_COLUMN =
+      String.format(
+          "insert into %s (`table`, `partition`, `name`, `min`, `max`) values (:table, :partition, :name, :min, :max)",
+          PARTITION_COLUMNS_TABLE_NAME);
+  private static final String GET_PARTITION_COLUMNS =
+      String.format(
+          "select * from %s where `table` = :table and `name` = :name order by `partition`",
+          PARTITION_COLUMNS_TABLE_NAME);
+
   private final Sql2o sql2o;
 
   public JdbcMetaData(String url) {
@@ -85,35 +111,52 @@ public class JdbcMetaData implements MetaData {
     try (Connection connection = sql2o.open()) {
       connection.createQuery(CREATE_PARTITIONS_TABLE).executeUpdate();
       connection.createQuery(CREATE_COLUMNS_TABLE).executeUpdate();
+      connection.createQuery(CREATE_PARTITION_COLUMNS_TABLE).executeUpdate();
     }
   }
 
   @Override
-  public void add(List<Partition> partitions, List<Column> columns) {
+  public void add(
+      List<Partition> partitions, List<Column> columns, List<PartitionColumn> partitionColumns) {
     try (Connection con = sql2o.open()) {
       con.getJdbcConnection().setAutoCommit(false);
 
-      for (Partition partition : partitions) {
-        con.createQuery(ADD_PARTITION)
-            .addParameter("srcTable", partition.getSrcTable())
-            .addParameter("tableName", partition.getTableName())
-            .addParameter("id", partition.getId())
-            .addParameter("entries", partition.getEntries())
-            .addParameter("fact", partition.isFact())
-            .executeUpdate();
+      try (Query query = con.createQuery(ADD_PARTITION)) {
+        for (Partition partition : partitions) {
+          query
+              .addParameter("srcTable", partition.getSrcTable())
+              .addParameter("tableName", partition.getTableName())
+              .addParameter("id", partition.getId())
+              .addParameter("entries", partition.getEntries())
+              .addParameter("fact", partition.isFact())
+              .addToBatch();
+        }
+        query.executeBatch();
+      }
+
+      try (Query query = con.createQuery(ADD_COLUMN)) {
+        for (Column column : columns) {
+          query
+              .addParameter("table", column.getTable())
+              .addParameter("name", column.getName())
+              .addParameter("min", column.getMin())
+              .addParameter("max", column.getMax())
+              .addToBatch();
+        }
+        query.executeBatch();
       }
 
-      for (Column column : columns) {
-        try {
-          con.createQuery(ADD_COLUMN)
+      try (Query query = con.createQuery(ADD_PARTITION_COLUMN)) {
+        for (PartitionColumn column : partitionColumns) {
+          query
               .addParameter("table", column.getTable())
+              .addParameter("partition", column.getPartition())
               .addParameter("name", column.getName())
               .addParameter("min", column.getMin())
               .addParameter("max", column.getMax())
-              .executeUpdate();
-        } catch (Sql2oException e) {
-          throw e;
+              .addToBatch();
         }
+        query.executeBatch();
       }
 
       con.commit();
@@ -131,6 +174,16 @@ public class JdbcMetaData implements MetaData {
     }
   }
 
+  @Override
+  public List<PartitionColumn> getPartitionColumns(String table, String column) {
+    try (Connection con = sql2o.open()) {
+      return con.createQuery(GET_PARTITION_COLUMNS)
+          .addParameter("table", table)
+          .addParameter("name", column)
+          .executeAndFetch(PartitionColumn.class);
+    }
+  }
+
   @Override
   public Column getColumn(String table, String column) {
     try (Connection con = sql2o.open()) {
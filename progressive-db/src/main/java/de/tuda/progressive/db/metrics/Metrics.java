@@ -0,0 +1,111 @@
+package de.tuda.progressive.db.metrics;
+
+import de.tuda.progressive.db.meta.CachingMetaData;
+import de.tuda.progressive.db.statement.QueryScheduler;
+import org.apache.calcite.avatica.metrics.Counter;
+import org.apache.calcite.avatica.metrics.Gauge;
+import org.apache.calcite.avatica.metrics.Histogram;
+import org.apache.calcite.avatica.metrics.MetricsSystem;
+import org.apache.calcite.avatica.metrics.Timer;
+import org.apache.calcite.avatica.metrics.noop.NoopMetricsSystem;
+
+/**
+ * Metrics of progressive queries, recorded through the metrics system which is also passed to the
+ * Avatica meta.
+ */
+public class Metrics {
+
+  public static final Metrics NOOP = new Metrics(NoopMetricsSystem.getInstance());
+
+  private static final String PREFIX = "de.tuda.progressive.db.";
+
+  public static final String FIRST_RESULT = PREFIX + "FirstResult";
+
+  public static final String SOURCE_LATENCY = PREFIX + "SourceLatency";
+
+  public static final String MERGE_LATENCY = PREFIX + "MergeLatency";
+
+  public static final String BUFFER_QUERY_LATENCY = PREFIX + "BufferQueryLatency";
+
+  public static final String PARTITION_ROWS = PREFIX + "PartitionRows";
+
+  public static final String ACTIVE_QUERIES = PREFIX + "ActiveQueries";
+
+  public static final String QUEUE_SIZE = PREFIX + "QueueSize";
+
+  public static final String META_DATA_HIT_RATE = PREFIX + "MetaDataHitRate";
+
+  private final MetricsSystem metricsSystem;
+
+  private final Timer firstResult;
+
+  private final Timer sourceLatency;
+
+  private final Timer mergeLatency;
+
+  private final Timer bufferQueryLatency;
+
+  private final Histogram partitionRows;
+
+  private final Counter activeQueries;
+
+  public Metrics(MetricsSystem metricsSystem) {
+    this.metricsSystem = metricsSystem;
+    this.firstResult = metricsSystem.getTimer(FIRST_RESULT);
+    this.sourceLatency = metricsSystem.getTimer(SOURCE_LATENCY);
+    this.mergeLatency = metricsSystem.getTimer(MERGE_LATENCY);
+    this.bufferQueryLatency = metricsSystem.getTimer(BUFFER_QUERY_LATENCY);
+    this.partitionRows = metricsSystem.getHistogram(PARTITION_ROWS);
+    this.activeQueries = metricsSystem.getCounter(ACTIVE_QUERIES);
+  }
+
+  /**
+   * Registers the number of steps which wait for a thread of the scheduler.
+   */
+  public void register(QueryScheduler scheduler) {
+    metricsSystem.register(QUEUE_SIZE, (Gauge<Integer>) scheduler::getQueueSize);
+  }
+
+  /**
+   * Registers the share of meta data lookups which are served by the cache.
+   */
+  public void register(CachingMetaData metaData) {
+    metricsSystem.register(META_DATA_HIT_RATE, (Gauge<Double>) metaData::getHitRate);
+  }
+
+  /**
+   * Time from the start of a query until its first result.
+   */
+  public Timer getFirstResult() {
+    return firstResult;
+  }
+
+  /**
+   * Time until the source returns the rows of a partition.
+   */
+  public Timer getSourceLatency() {
+    return sourceLatency;
+  }
+
+  /**
+   * Time to merge the rows of a partition into the buffer.
+   */
+  public Timer getMergeLatency() {
+    return mergeLatency;
+  }
+
+  /**
+   * Time to read the current result from the buffer.
+   */
+  public Timer getBufferQueryLatency() {
+    return bufferQueryLatency;
+  }
+
+  public Histogram getPartitionRows() {
+    return partitionRows;
+  }
+
+  public Counter getActiveQueries() {
+    return activeQueries;
+  }
+}
@@ -0,0 +1,119 @@
+package de.tuda.progressive.db.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+/**
+ * Writes the metrics of the registry on GET /metrics. Durations are given in milliseconds.
+ */
+class MetricsHandler extends AbstractHandler {
+
+  private static final String PATH = "/metrics";
+
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private final MetricRegistry registry;
+
+  MetricsHandler(MetricRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void handle(
+      String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    baseRequest.setHandled(true);
+
+    if (!PATH.equals(target)) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+
+    final Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("timers", getTimers());
+    metrics.put("histograms", getHistograms());
+    metrics.put("counters", getCounters());
+    metrics.put("gauges", getGauges());
+    metrics.put("meters", getMeters());
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    mapper.writeValue(response.getWriter(), metrics);
+  }
+
+  private Map<String, Object> getTimers() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+      result.put(
+          entry.getKey(),
+          toMap(entry.getValue().getCount(), entry.getValue().getSnapshot(), NANOS_PER_MILLI));
+    }
+    return result;
+  }
+
+  private Map<String, Object> getHistograms() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+      result.put(
+          entry.getKey(), toMap(entry.getValue().getCount(), entry.getValue().getSnapshot(), 1.0));
+    }
+    return result;
+  }
+
+  private Map<String, Object> getCounters() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getCount());
+    }
+    return result;
+  }
+
+  private Map<String, Object> getGauges() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getValue());
+    }
+    return result;
+  }
+
+  private Map<String, Object> getMeters() {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+      final Map<String, Object> meter = new LinkedHashMap<>();
+      meter.put("count", entry.getValue().getCount());
+      meter.put("meanRate", entry.getValue().getMeanRate());
+      meter.put("oneMinuteRate", entry.getValue().getOneMinuteRate());
+      result.put(entry.getKey(), meter);
+    }
+    return result;
+  }
+
+  private Map<String, Object> toMap(long count, Snapshot snapshot, double divisor) {
+    final Map<String, Object> result = new LinkedHashMap<>();
+    result.put("count", count);
+    result.put("mean", snapshot.getMean() / divisor);
+    result.put("min", snapshot.getMin() / divisor);
+    result.put("p50", snapshot.getMedian() / divisor);
+    result.put("p95", snapshot.get95thPercentile() / divisor);
+    result.put("p99", snapshot.get99thPercentile() / divisor);
+    result.put("max", snapshot.getMax() / divisor);
+    return result;
+  }
+}
@@ -0,0 +1,40 @@
+package de.tuda.progressive.db.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import de.tuda.progressive.db.exception.ProgressiveException;
+import org.eclipse.jetty.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the current values of all metrics of the registry as json.
+ */
+public class MetricsServer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(MetricsServer.class);
+
+  private final Server server;
+
+  public MetricsServer(int port, MetricRegistry registry) {
+    this.server = new Server(port);
+    this.server.setHandler(new MetricsHandler(registry));
+  }
+
+  public void start() {
+    try {
+      server.start();
+      log.info("metrics server started on port {}", server.getURI().getPort());
+    } catch (Exception e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      server.stop();
+    } catch (Exception e) {
+      log.warn("could not stop metrics server", e);
+    }
+  }
+}
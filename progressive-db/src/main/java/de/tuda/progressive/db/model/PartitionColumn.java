@@ -0,0 +1,25 @@
+package de.tuda.progressive.db.model;
+
+/**
+ * Bounds of a column within a single partition of a table.
+ */
+public class PartitionColumn extends Column {
+
+	private int partition;
+
+	public PartitionColumn() {
+	}
+
+	public PartitionColumn(String table, int partition, String name, long min, long max) {
+		super(table, name, min, max);
+		this.partition = partition;
+	}
+
+	public int getPartition() {
+		return partition;
+	}
+
+	public void setPartition(int partition) {
+		this.partition = partition;
+	}
+}
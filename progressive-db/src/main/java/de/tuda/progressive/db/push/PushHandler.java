@@ -0,0 +1,255 @@
+package de.tuda.progressive.db.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tuda.progressive.db.ProgressiveHandler;
+import de.tuda.progressive.db.ProgressiveMeta;
+import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
+import de.tuda.progressive.db.statement.ListenableStatement;
+import de.tuda.progressive.db.statement.ProgressiveStatement;
+import de.tuda.progressive.db.statement.ResultListener;
+import de.tuda.progressive.db.util.SqlSupplier;
+import de.tuda.progressive.db.util.SqlUtils;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the progressive query of the sql parameter and sends every result as a server-sent event.
+ */
+class PushHandler extends AbstractHandler {
+
+  private static final Logger log = LoggerFactory.getLogger(PushHandler.class);
+
+  private static final String SQL_PARAMETER = "sql";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Writes the events of all requests, each request is written by one thread at a time.
+   */
+  private final ExecutorService writers = Executors.newCachedThreadPool();
+
+  private final ProgressiveHandler progressiveHandler;
+
+  private final SqlSupplier<Connection> connectionSupplier;
+
+  PushHandler(ProgressiveHandler progressiveHandler, SqlSupplier<Connection> connectionSupplier) {
+    this.progressiveHandler = progressiveHandler;
+    this.connectionSupplier = connectionSupplier;
+  }
+
+  @Override
+  public void handle(
+      String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    baseRequest.setHandled(true);
+
+    final String sql = request.getParameter(SQL_PARAMETER);
+    if (sql == null) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "parameter sql is missing");
+      return;
+    }
+
+    Connection connection = null;
+    try {
+      final SqlSelectProgressive select = parse(sql);
+      connection = connectionSupplier.get();
+
+      final ProgressiveStatement statement = progressiveHandler.handle(connection, select);
+      if (!(statement instanceof ListenableStatement)) {
+        statement.close();
+        SqlUtils.closeSafe(connection);
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "query cannot be pushed");
+        return;
+      }
+
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType("text/event-stream");
+      response.setCharacterEncoding("UTF-8");
+      response.flushBuffer();
+
+      final AsyncContext async = request.startAsync();
+      async.setTimeout(0);
+
+      final EventListener listener =
+          new EventListener(async, (ListenableStatement) statement, connection);
+      ((ListenableStatement) statement).setListener(listener);
+
+      if (statement.isDone()) {
+        listener.onDone();
+      } else {
+        statement.run();
+      }
+    } catch (Exception e) {
+      log.warn("could not push query", e);
+      SqlUtils.closeSafe(connection);
+      if (!response.isCommitted()) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      }
+    }
+  }
+
+  private SqlSelectProgressive parse(String sql) throws Exception {
+    final SqlNode node =
+        ProgressiveMeta.unwrapOrderBy(
+            SqlParser.create(sql, ProgressiveMeta.PARSER_CONFIG).parseStmt());
+
+    if (!(node instanceof SqlSelectProgressive)) {
+      throw new IllegalArgumentException("only progressive selects can be pushed");
+    }
+    return (SqlSelectProgressive) node;
+  }
+
+  void close() {
+    writers.shutdown();
+  }
+
+  /**
+   * Pushes the events of a statement in the order they occur. They are written by the writer
+   * threads, so the threads of the scheduler never block on a slow client and the statement is not
+   * closed from within its own callbacks.
+   */
+  private class EventListener implements ResultListener {
+
+    private final AsyncContext async;
+
+    private final ListenableStatement statement;
+
+    private final Connection connection;
+
+    private final Queue<Runnable> events = new ArrayDeque<>();
+
+    private boolean writing;
+
+    private boolean done;
+
+    private volatile boolean completed;
+
+    private EventListener(
+        AsyncContext async, ListenableStatement statement, Connection connection) {
+      this.async = async;
+      this.statement = statement;
+      this.connection = connection;
+    }
+
+    @Override
+    public void onResult(List<Object[]> rows, int partitions, double progress) {
+      final Map<String, Object> data = new HashMap<>();
+      data.put("partitions", partitions);
+      data.put("progress", progress);
+      data.put("rows", rows);
+
+      enqueue(() -> send("result", data), false);
+    }
+
+    @Override
+    public void onDone() {
+      enqueue(
+          () -> {
+            send("done", new HashMap<>());
+            complete();
+          },
+          true);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      final Map<String, Object> data = new HashMap<>();
+      data.put("message", String.valueOf(t.getMessage()));
+
+      enqueue(
+          () -> {
+            send("error", data);
+            complete();
+          },
+          true);
+    }
+
+    /**
+     * @param last no events are accepted after this one
+     */
+    private synchronized void enqueue(Runnable event, boolean last) {
+      if (done) {
+        return;
+      }
+      done = last;
+
+      events.add(event);
+      if (!writing) {
+        writing = true;
+        writers.execute(this::write);
+      }
+    }
+
+    private void write() {
+      while (true) {
+        final Runnable event;
+        synchronized (this) {
+          event = events.poll();
+          if (event == null) {
+            writing = false;
+            return;
+          }
+        }
+
+        if (!completed) {
+          event.run();
+        }
+      }
+    }
+
+    private void send(String event, Object data) {
+      try {
+        final PrintWriter writer = async.getResponse().getWriter();
+        writer.write("event: " + event + "\n");
+        writer.write("data: " + mapper.writeValueAsString(data) + "\n\n");
+        writer.flush();
+
+        if (writer.checkError()) {
+          // client is gone
+          complete();
+        }
+      } catch (IOException | IllegalStateException e) {
+        log.warn("could not push event", e);
+        complete();
+      }
+    }
+
+    private void complete() {
+      if (completed) {
+        return;
+      }
+      completed = true;
+
+      synchronized (this) {
+        done = true;
+        events.clear();
+      }
+
+      statement.close();
+      SqlUtils.closeSafe(connection);
+
+      try {
+        async.complete();
+      } catch (IllegalStateException e) {
+        // already completed
+      }
+    }
+  }
+}
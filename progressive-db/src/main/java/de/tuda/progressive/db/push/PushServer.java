@@ -0,0 +1,49 @@
+package de.tuda.progressive.db.push;
+
+import de.tuda.progressive.db.ProgressiveHandler;
+import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.util.SqlSupplier;
+import java.sql.Connection;
+import org.eclipse.jetty.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams the results of progressive queries as server-sent events next to the Avatica endpoint.
+ * Requests do not block a server thread while the query runs, the events are written by threads
+ * of the handler.
+ */
+public class PushServer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(PushServer.class);
+
+  private final Server server;
+
+  private final PushHandler handler;
+
+  public PushServer(
+      int port, ProgressiveHandler progressiveHandler, SqlSupplier<Connection> connectionSupplier) {
+    this.server = new Server(port);
+    this.handler = new PushHandler(progressiveHandler, connectionSupplier);
+    this.server.setHandler(handler);
+  }
+
+  public void start() {
+    try {
+      server.start();
+      log.info("push server started on port {}", server.getURI().getPort());
+    } catch (Exception e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      server.stop();
+    } catch (Exception e) {
+      log.warn("could not stop push server", e);
+    }
+    handler.close();
+  }
+}
@@ -2,6 +2,7 @@ package de.tuda.progressive.db.sql.parser;
 
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.SqlNumericLiteral;
 import org.apache.calcite.sql.SqlOperator;
 import org.apache.calcite.sql.SqlSelect;
 import org.apache.calcite.sql.parser.SqlParserPos;
@@ -12,6 +13,12 @@ public class SqlSelectProgressive extends SqlSelect {
 
   private SqlNodeList withFutureGroupBy;
 
+  private boolean withDelta;
+
+  private SqlNumericLiteral withError;
+
+  private SqlNumericLiteral withConfidence;
+
   public SqlSelectProgressive(
       SqlParserPos pos,
       SqlNodeList keywordList,
@@ -23,6 +30,9 @@ public class SqlSelectProgressive extends SqlSelect {
       SqlNodeList groupBy,
       SqlNode having,
       SqlNodeList windowDecls,
+      boolean withDelta,
+      SqlNumericLiteral withError,
+      SqlNumericLiteral withConfidence,
       SqlNodeList orderBy,
       SqlNode offset,
       SqlNode fetch) {
@@ -41,6 +51,33 @@ public class SqlSelectProgressive extends SqlSelect {
 
     this.withFutureWhere = withFutureWhere;
     this.withFutureGroupBy = withFutureGroupBy;
+    this.withDelta = withDelta;
+    this.withError = withError;
+    this.withConfidence = withConfidence;
+  }
+
+  /**
+   * Copies the select with all progressive clauses, the clauses themselves are shared.
+   */
+  @Override
+  public SqlSelectProgressive clone(SqlParserPos pos) {
+    return new SqlSelectProgressive(
+        pos,
+        (SqlNodeList) getOperandList().get(0),
+        getSelectList(),
+        getFrom(),
+        withFutureWhere,
+        getWhere(),
+        withFutureGroupBy,
+        getGroup(),
+        getHaving(),
+        getWindowList(),
+        withDelta,
+        withError,
+        withConfidence,
+        getOrderList(),
+        getOffset(),
+        getFetch());
   }
 
   @Override
@@ -55,4 +92,24 @@ public class SqlSelectProgressive extends SqlSelect {
   public SqlNodeList getWithFutureGroupBy() {
     return withFutureGroupBy;
   }
+
+  /**
+   * Whether only changed groups are returned after each partition, see {@link
+   * de.tuda.progressive.db.statement.DeltaFilter} for their SUM and COUNT columns.
+   */
+  public boolean isWithDelta() {
+    return withDelta;
+  }
+
+  /**
+   * Max. confidence interval of every group, after which no further partitions are read. Null if
+   * all partitions are read.
+   */
+  public SqlNumericLiteral getWithError() {
+    return withError;
+  }
+
+  public SqlNumericLiteral getWithConfidence() {
+    return withConfidence;
+  }
 }
@@ -119,6 +119,15 @@ public class SqlSelectProgressiveOperator extends SqlOperator {
       }
       writer.endList(windowFrame);
     }
+    if (select.isWithDelta()) {
+      writer.sep("WITH DELTA");
+    }
+    if (select.getWithError() != null) {
+      writer.sep("WITH ERROR");
+      select.getWithError().unparse(writer, 0, 0);
+      writer.keyword("CONFIDENCE");
+      select.getWithConfidence().unparse(writer, 0, 0);
+    }
     if (select.getOrderList() != null && select.getOrderList().size() > 0) {
       writer.sep("ORDER BY");
       final SqlWriter.Frame orderFrame = writer.startList(SqlWriter.FrameTypeEnum.ORDER_BY_LIST);
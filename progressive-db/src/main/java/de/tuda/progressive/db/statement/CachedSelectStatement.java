@@ -0,0 +1,64 @@
+package de.tuda.progressive.db.statement;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Serves the final result of a query from the {@link ResultCache} without reading the source.
+ */
+public class CachedSelectStatement implements ListenableStatement {
+
+  private final ResultCache.Result result;
+
+  private ResultListener listener;
+
+  private boolean sent;
+
+  public CachedSelectStatement(ResultCache.Result result) {
+    this.result = result;
+  }
+
+  @Override
+  public synchronized void setListener(ResultListener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public synchronized ResultSet getResultSet() {
+    final List<Object[]> rows = sent ? Collections.emptyList() : result.getRows();
+    sent = true;
+    return new ProgressiveResultSet(getMetaData(), new LinkedList<>(rows));
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() {
+    return result.getMetaData();
+  }
+
+  @Override
+  public synchronized boolean isDone() {
+    return sent;
+  }
+
+  @Override
+  public synchronized void run() {
+    if (listener != null && !sent) {
+      sent = true;
+      listener.onResult(result.getRows(), result.getPartitions(), result.getProgress());
+      listener.onDone();
+    }
+  }
+
+  @Override
+  public void close() {
+    // do nothing
+  }
+
+  @Override
+  public boolean closeWithStatement() {
+    return true;
+  }
+}
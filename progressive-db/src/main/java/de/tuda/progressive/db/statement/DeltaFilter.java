@@ -0,0 +1,130 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.statement.context.MetaField;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Filters the rows of a progressive result down to the groups whose values changed since the last
+ * call. Partition and progress columns are not compared, so they are only sent along with changed
+ * groups.
+ *
+ * <p>SUM and COUNT are extrapolated by the progress, so their extrapolation changes with every
+ * partition even if the group did not. They are compared and returned unscaled, i.e. as the
+ * aggregates of the partitions read so far, which stay valid until the group changes. Clients
+ * divide them by the progress of the latest result to extrapolate them.
+ */
+public class DeltaFilter {
+
+  private static final double EPSILON = 1e-9;
+
+  private final int[] keyColumns;
+
+  private final int[] valueColumns;
+
+  private final int[] scaledColumns;
+
+  private final Map<List<Object>, List<Object>> sent = new HashMap<>();
+
+  public DeltaFilter(List<MetaField> metaFields) {
+    final List<Integer> keyColumns = new ArrayList<>();
+    final List<Integer> valueColumns = new ArrayList<>();
+    final List<Integer> scaledColumns = new ArrayList<>();
+
+    int column = 0;
+    for (MetaField metaField : metaFields) {
+      switch (metaField) {
+        case FUTURE_GROUP:
+        case FUTURE_WHERE:
+          // not part of the result
+          continue;
+        case NONE:
+          keyColumns.add(column);
+          break;
+        case PARTITION:
+        case PROGRESS:
+          // changes with every partition
+          break;
+        case SUM:
+        case COUNT:
+          scaledColumns.add(column);
+          break;
+        default:
+          valueColumns.add(column);
+      }
+      column++;
+    }
+
+    this.keyColumns = keyColumns.stream().mapToInt(Integer::intValue).toArray();
+    this.valueColumns = valueColumns.stream().mapToInt(Integer::intValue).toArray();
+    this.scaledColumns = scaledColumns.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @param progress progress the SUM and COUNT columns of the rows are scaled by
+   * @return changed rows with unscaled SUM and COUNT columns, empty if no group changed
+   */
+  public synchronized List<Object[]> filter(List<Object[]> rows, double progress) {
+    final List<Object[]> changed = new ArrayList<>();
+
+    for (Object[] row : rows) {
+      final Object[] unscaled = scaledColumns.length == 0 ? row : row.clone();
+      for (int column : scaledColumns) {
+        unscaled[column] = unscale(row[column], progress);
+      }
+
+      final List<Object> values = get(unscaled, valueColumns);
+      for (int column : scaledColumns) {
+        values.add(unscaled[column]);
+      }
+      final List<Object> previous = sent.put(get(unscaled, keyColumns), values);
+
+      if (!equals(values, previous)) {
+        changed.add(unscaled);
+      }
+    }
+
+    return changed;
+  }
+
+  private Object unscale(Object value, double progress) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue() * progress;
+    }
+    return value;
+  }
+
+  private boolean equals(List<Object> values, List<Object> previous) {
+    if (previous == null) {
+      return false;
+    }
+
+    for (int i = 0; i < values.size(); i++) {
+      final Object value = values.get(i);
+      final Object previousValue = previous.get(i);
+
+      if (value instanceof Double && previousValue instanceof Double) {
+        // scaling back and forth is not exact
+        final double a = (Double) value;
+        final double b = (Double) previousValue;
+        if (Math.abs(a - b) > EPSILON * Math.max(Math.abs(a), Math.abs(b))) {
+          return false;
+        }
+      } else if (!Objects.equals(value, previousValue)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<Object> get(Object[] row, int[] columns) {
+    final List<Object> values = new ArrayList<>(columns.length + scaledColumns.length);
+    for (int column : columns) {
+      values.add(row[column]);
+    }
+    return values;
+  }
+}
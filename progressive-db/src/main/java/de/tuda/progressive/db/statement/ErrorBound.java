@@ -0,0 +1,76 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.util.MetaFieldUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides whether a progressive result is accurate enough, so the remaining partitions do not have
+ * to be read. This is the case if the confidence interval of every group is at most the error.
+ */
+public class ErrorBound {
+
+  private final int[] intervalColumns;
+
+  private final double error;
+
+  private final double confidence;
+
+  public ErrorBound(List<MetaField> metaFields, double error, double confidence) {
+    if (error <= 0.0) {
+      throw new IllegalArgumentException("error must be positive: " + error);
+    }
+    if (confidence <= 0.0 || confidence >= 1.0) {
+      throw new IllegalArgumentException("confidence must be between 0 and 1: " + confidence);
+    }
+
+    final List<Integer> intervalColumns = new ArrayList<>();
+
+    int column = 0;
+    for (MetaField metaField : metaFields) {
+      switch (metaField) {
+        case FUTURE_GROUP:
+        case FUTURE_WHERE:
+          // not part of the result
+          continue;
+        case CONFIDENCE_INTERVAL:
+          intervalColumns.add(column);
+          break;
+        default:
+          // not bounded
+      }
+      column++;
+    }
+
+    if (intervalColumns.isEmpty()) {
+      throw new IllegalArgumentException("with error requires a progressive_confidence column");
+    }
+
+    this.intervalColumns = intervalColumns.stream().mapToInt(Integer::intValue).toArray();
+    this.error = error;
+    this.confidence = confidence;
+  }
+
+  public boolean isReached(List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return false;
+    }
+
+    for (Object[] row : rows) {
+      for (int column : intervalColumns) {
+        final Object value = row[column];
+        if (!(value instanceof Number)) {
+          return false;
+        }
+
+        final double interval =
+            MetaFieldUtils.scaleConfidenceInterval(((Number) value).doubleValue(), confidence);
+        if (Double.isNaN(interval) || interval > error) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
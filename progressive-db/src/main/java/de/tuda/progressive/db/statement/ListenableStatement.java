@@ -0,0 +1,13 @@
+package de.tuda.progressive.db.statement;
+
+/**
+ * Statement whose results can be pushed to a {@link ResultListener}.
+ */
+public interface ListenableStatement extends ProgressiveStatement {
+
+  /**
+   * Pushes the results to the listener instead of collecting them for {@link #getResultSet()}. Has
+   * to be set before the statement is run.
+   */
+  void setListener(ResultListener listener);
+}
@@ -0,0 +1,44 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import java.util.List;
+
+/**
+ * Order in which the partitions of a table are read. Partitions are assigned by load order, so
+ * reading them in id order biases early results if the data is clustered.
+ */
+public interface PartitionOrder {
+
+  PartitionOrder SEQUENTIAL = (table, partitions) -> partitions;
+
+  /**
+   * @return the partitions in the order they should be read, the given list is not modified
+   */
+  List<Partition> order(String table, List<Partition> partitions);
+
+  enum Strategy {
+    SEQUENTIAL,
+    RANDOM,
+    STRATIFIED
+  }
+
+  /**
+   * @param column column to stratify on, only used by {@link Strategy#STRATIFIED}
+   */
+  static PartitionOrder create(Strategy strategy, MetaData metaData, long seed, String column) {
+    switch (strategy) {
+      case SEQUENTIAL:
+        return SEQUENTIAL;
+      case RANDOM:
+        return new RandomPartitionOrder(seed);
+      case STRATIFIED:
+        if (column == null) {
+          throw new IllegalArgumentException("stratified order requires a column");
+        }
+        return new StratifiedPartitionOrder(metaData, column, seed);
+      default:
+        throw new IllegalArgumentException("strategy not supported: " + strategy);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.calcite.sql.SqlBasicCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNumericLiteral;
+import org.apache.calcite.sql.fun.SqlBetweenOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes the partitions of a table which cannot contain rows matching the where clause, based on
+ * the bounds of their columns. Predicates which cannot be evaluated on the bounds, including future
+ * ones, never remove a partition.
+ */
+public class PartitionPruner {
+
+  private static final Logger log = LoggerFactory.getLogger(PartitionPruner.class);
+
+  private final MetaData metaData;
+
+  public PartitionPruner(MetaData metaData) {
+    this.metaData = metaData;
+  }
+
+  public List<Partition> prune(String table, List<Partition> partitions, SqlNode where) {
+    if (where == null) {
+      return partitions;
+    }
+
+    final Map<String, Map<Integer, PartitionColumn>> bounds = new HashMap<>();
+    final List<Partition> result =
+        partitions.stream()
+            .filter(partition -> mayMatch(table, partition.getId(), where, bounds))
+            .collect(Collectors.toList());
+
+    if (result.size() < partitions.size()) {
+      log.info(
+          "pruned {} of {} partitions of table {}",
+          partitions.size() - result.size(),
+          partitions.size(),
+          table);
+    }
+    return result;
+  }
+
+  private boolean mayMatch(
+      String table,
+      int partition,
+      SqlNode node,
+      Map<String, Map<Integer, PartitionColumn>> bounds) {
+    if (!(node instanceof SqlBasicCall)) {
+      return true;
+    }
+
+    final SqlBasicCall call = (SqlBasicCall) node;
+    final SqlNode[] operands = call.getOperands();
+
+    switch (call.getKind()) {
+      case AND:
+        for (SqlNode operand : operands) {
+          if (!mayMatch(table, partition, operand, bounds)) {
+            return false;
+          }
+        }
+        return true;
+      case OR:
+        for (SqlNode operand : operands) {
+          if (mayMatch(table, partition, operand, bounds)) {
+            return true;
+          }
+        }
+        return false;
+      case EQUALS:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        if (operands[1] instanceof SqlNumericLiteral) {
+          return mayMatch(
+              getBounds(table, partition, operands[0], bounds),
+              call.getKind(),
+              getValue(operands[1]));
+        }
+        if (operands[0] instanceof SqlNumericLiteral) {
+          return mayMatch(
+              getBounds(table, partition, operands[1], bounds),
+              call.getKind().reverse(),
+              getValue(operands[0]));
+        }
+        return true;
+      case BETWEEN:
+        if (((SqlBetweenOperator) call.getOperator()).isNegated()
+            || !(operands[1] instanceof SqlNumericLiteral)
+            || !(operands[2] instanceof SqlNumericLiteral)) {
+          return true;
+        }
+
+        final PartitionColumn column = getBounds(table, partition, operands[0], bounds);
+        final BigDecimal lower = getValue(operands[1]);
+        final BigDecimal upper = getValue(operands[2]);
+        return mayMatch(column, SqlKind.GREATER_THAN_OR_EQUAL, lower.min(upper))
+            && mayMatch(column, SqlKind.LESS_THAN_OR_EQUAL, lower.max(upper));
+      default:
+        return true;
+    }
+  }
+
+  private boolean mayMatch(PartitionColumn column, SqlKind kind, BigDecimal value) {
+    if (column == null) {
+      return true;
+    }
+
+    final int min = BigDecimal.valueOf(column.getMin()).compareTo(value);
+    final int max = BigDecimal.valueOf(column.getMax()).compareTo(value);
+
+    switch (kind) {
+      case EQUALS:
+        return min <= 0 && max >= 0;
+      case LESS_THAN:
+        return min < 0;
+      case LESS_THAN_OR_EQUAL:
+        return min <= 0;
+      case GREATER_THAN:
+        return max > 0;
+      case GREATER_THAN_OR_EQUAL:
+        return max >= 0;
+      default:
+        return true;
+    }
+  }
+
+  private BigDecimal getValue(SqlNode node) {
+    return ((SqlNumericLiteral) node).bigDecimalValue();
+  }
+
+  /**
+   * @return bounds of the column in the partition or null if the node is no column of the table or
+   *     its bounds are unknown
+   */
+  private PartitionColumn getBounds(
+      String table,
+      int partition,
+      SqlNode node,
+      Map<String, Map<Integer, PartitionColumn>> bounds) {
+    if (!(node instanceof SqlIdentifier)) {
+      return null;
+    }
+
+    final List<String> names = ((SqlIdentifier) node).names;
+    if (names.size() > 2 || (names.size() == 2 && !names.get(0).equals(table))) {
+      return null;
+    }
+
+    final String column = names.get(names.size() - 1);
+    return bounds
+        .computeIfAbsent(
+            column,
+            c ->
+                metaData.getPartitionColumns(table, c).stream()
+                    .collect(
+                        Collectors.toMap(PartitionColumn::getPartition, bound -> bound)))
+        .get(partition);
+  }
+}
@@ -17,14 +17,20 @@ public class PrepareStatement implements ProgressiveStatement {
 
   private final String table;
 
+  private final Runnable prepared;
+
   private boolean finished;
 
+  /**
+   * @param prepared called after the table is prepared, e.g. to drop cached state of the table
+   */
   public PrepareStatement(DbDriver driver, Connection connection,
-      MetaData metaData, String table) {
+      MetaData metaData, String table, Runnable prepared) {
     this.driver = driver;
     this.connection = connection;
     this.metaData = metaData;
     this.table = table;
+    this.prepared = prepared;
   }
 
   @Override
@@ -45,6 +51,7 @@ public class PrepareStatement implements ProgressiveStatement {
   @Override
   public synchronized void run() {
     driver.prepareTable(connection, table, metaData);
+    prepared.run();
     finished = true;
   }
 
@@ -3,54 +3,92 @@ package de.tuda.progressive.db.statement;
 import de.tuda.progressive.db.buffer.DataBuffer;
 import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.log.QueryLog;
+import de.tuda.progressive.db.log.QueryLogRecord;
+import de.tuda.progressive.db.log.SqlTemplate;
+import de.tuda.progressive.db.metrics.Metrics;
+import de.tuda.progressive.db.model.Partition;
 import de.tuda.progressive.db.model.PartitionInfo;
 import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.util.LruCache;
+import de.tuda.progressive.db.util.SqlSupplier;
 import de.tuda.progressive.db.util.SqlUtils;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.calcite.avatica.metrics.Timer;
 import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlJoin;
+import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlSelect;
-import org.eclipse.jetty.util.IO;
+import org.apache.calcite.sql.parser.SqlParserPos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public abstract class ProgressiveBaseStatement implements ProgressiveStatement {
 
-  private static FileWriter writer;
+  private static final Logger log = LoggerFactory.getLogger(ProgressiveBaseStatement.class);
 
-  static {
-    try {
-      writer = new FileWriter(new File(System.getProperty("user.home") + "/progressive-db.log"));
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
-  }
+  private static final AtomicLong queryIds = new AtomicLong();
 
-  private static final Logger log = LoggerFactory.getLogger(ProgressiveBaseStatement.class);
+  public static final int DEFAULT_FETCH_SIZE = 10000;
+
+  private static final int PARTITION_SQL_CACHE_SIZE = 1024;
 
-  private static final ExecutorService executor = Executors.newScheduledThreadPool(5);
+  /**
+   * Selects of single partition combinations, if the driver stores each partition in its own
+   * table. Rendering them is not free and the same queries are usually repeated.
+   */
+  private static final LruCache<String, SqlTemplate> partitionSql =
+      new LruCache<>(PARTITION_SQL_CACHE_SIZE);
 
   private final DbDriver driver;
 
   private final PartitionInfo partitionInfo;
 
-  private PreparedStatement preparedStatement;
+  private final SqlSupplier<Connection> connectionSupplier;
+
+  private final int parallelism;
+
+  private final int fetchSize;
+
+  private final QueryScheduler scheduler;
+
+  private final Metrics metrics;
+
+  private final List<PartitionReader> readers = new ArrayList<>();
 
-  private final LinkedHashMap<String, Integer> currentReadPartitions;
+  private final Object mergeLock = new Object();
+
+  private int nextPartition = 0;
 
   private int readPartitions = 0;
 
+  private boolean stopped;
+
+  private boolean paused;
+
+  private boolean failed;
+
+  /**
+   * Number of readers which did not finish yet.
+   */
+  private int activeReaders = 1;
+
+  private boolean active;
+
+  private Timer.Context firstResult;
+
+  private long fetchTime = 0;
+
   protected final ResultSetMetaData metaData;
 
   protected final DataBuffer dataBuffer;
@@ -59,126 +97,440 @@ public abstract class ProgressiveBaseStatement implements ProgressiveStatement {
 
   private final SqlSelect selectSource;
 
+  private final String selectSourceSql;
+
+  private final long queryId = queryIds.incrementAndGet();
+
+  private final SqlTemplate sqlTemplate;
+
   private final List<SqlIdentifier> sourceTables;
 
+  /**
+   * @param connection source connection of the client, may be null if the statement should only
+   *     use connections of the connectionSupplier
+   * @param connectionSupplier opens additional source connections, may be null if only the given
+   *     connection should be used
+   * @param parallelism max. number of partitions which are read concurrently
+   * @param fetchSize number of rows which are fetched from the source at once, 0 to read whole
+   *     partitions before merging them
+   * @param scheduler executes the partition steps of the statement
+   * @param metrics records the latencies of the statement
+   */
   public ProgressiveBaseStatement(
       DbDriver driver,
       Connection connection,
       JdbcSourceContext context,
       DataBuffer dataBuffer,
-      PartitionInfo partitionInfo) {
+      PartitionInfo partitionInfo,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      Metrics metrics) {
     this.driver = driver;
     this.dataBuffer = dataBuffer;
     this.partitionInfo = partitionInfo;
     this.selectSource = context.getSelectSource();
+    this.selectSourceSql = driver.toSql(selectSource);
+    this.sqlTemplate = new SqlTemplate(selectSourceSql);
     this.sourceTables = context.getSourceTables();
-    this.currentReadPartitions = getReadPartitions(sourceTables);
+    this.connectionSupplier = connectionSupplier;
+    this.parallelism = getParallelism(driver, connectionSupplier, parallelism, partitionInfo);
+    this.fetchSize = fetchSize;
+    this.scheduler = scheduler;
+    this.metrics = metrics;
+
+    if (isStreaming() || connection == null) {
+      // streaming may change the connection, so the one of the client is not used
+      readers.add(new PartitionReader(null));
+    } else {
+      readers.add(new PartitionReader(connection));
+    }
 
-    try {
-      preparedStatement =
-          driver.hasPartitions() ? connection.prepareStatement(driver.toSql(selectSource)) : null;
+    metaData = dataBuffer.getMetaData();
+  }
 
-      metaData = dataBuffer.getMetaData();
-    } catch (SQLException e) {
-      throw new ProgressiveException(e);
+  private static int getParallelism(
+      DbDriver driver,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      PartitionInfo partitionInfo) {
+    if (connectionSupplier == null) {
+      return 1;
     }
+    return Math.max(1, Math.min(parallelism, partitionInfo.getPartitionCount()));
   }
 
-  private LinkedHashMap<String, Integer> getReadPartitions(List<SqlIdentifier> tables) {
-    return tables.stream()
-        .collect(
-            Collectors.toMap(
-                SqlIdentifier::getSimple,
-                $ -> 0,
-                ($1, $2) -> {
-                  throw new RuntimeException();
-                },
-                LinkedHashMap::new));
+  private boolean isStreaming() {
+    return fetchSize > 0 && connectionSupplier != null && driver.hasPartitions();
   }
 
   @Override
   public void run() {
+    activate();
     startFetching();
   }
 
+  private synchronized void activate() {
+    if (!active) {
+      active = true;
+      metrics.getActiveQueries().increment();
+      firstResult = metrics.getFirstResult().start();
+    }
+  }
+
+  private synchronized void deactivate() {
+    if (active) {
+      active = false;
+      metrics.getActiveQueries().decrement();
+    }
+  }
+
+  private synchronized void resultProduced() {
+    if (firstResult != null) {
+      firstResult.close();
+      firstResult = null;
+    }
+    if (stopped || !hasPartitionsToRead()) {
+      deactivate();
+    }
+  }
+
   private void startFetching() {
-    executor.submit(
-        () -> {
-          try {
-            while (hasPartitionsToRead()) {
-              synchronized (this) {
-                if (isClosed) {
-                  break;
-                }
-              }
-
-              query();
-            }
-          } catch (Throwable t) {
-            if (!isClosed) {
-              // TODO
-              t.printStackTrace();
-            }
-          }
-        });
-  }
-
-  private void query() {
-    log.info("query next partition: {}", currentReadPartitions);
+    schedule(readers.get(0));
+
+    for (int i = 1; i < parallelism; i++) {
+      final PartitionReader reader = addReader();
+      if (reader == null) {
+        return;
+      }
+      schedule(reader);
+    }
+  }
+
+  private synchronized PartitionReader addReader() {
+    if (isClosed) {
+      return null;
+    }
+
+    final PartitionReader reader = new PartitionReader(null);
+    readers.add(reader);
+    activeReaders++;
+    return reader;
+  }
+
+  private void schedule(PartitionReader reader) {
+    scheduler.schedule(getFetchTime(), () -> step(reader));
+  }
+
+  private void step(PartitionReader reader) {
+    if (partitionInfo.getPartitionCount() == 0) {
+      produceEmptyResult(reader);
+      return;
+    }
+
+    final StepSizeEstimator stepSizeEstimator = scheduler.getStepSizeEstimator();
+    final int[] partitions =
+        nextPartitions(stepSizeEstimator.getStepSize(selectSourceSql, parallelism));
+    if (partitions == null) {
+      finish(reader);
+      return;
+    }
+
+    final long start = System.nanoTime();
+    try {
+      reader.connect();
+      query(reader, partitions[0], partitions[1]);
+    } catch (Throwable t) {
+      fail(t);
+      readerFinished();
+      return;
+    } finally {
+      // source connections are only held during a step, idle and parked statements keep none
+      finish(reader);
+
+      final long time = System.nanoTime() - start;
+      addFetchTime(time);
+      stepSizeEstimator.record(selectSourceSql, partitions[1], time);
+    }
+
+    schedule(reader);
+  }
+
+  /**
+   * All partitions were pruned, so the empty result is produced once and the statement is done.
+   */
+  private void produceEmptyResult(PartitionReader reader) {
+    final boolean closed;
+    synchronized (this) {
+      activeReaders--;
+      closed = isClosed;
+    }
+
+    if (closed) {
+      finish(reader);
+      return;
+    }
+
     try {
-      ResultSet resultSet = getResult(currentReadPartitions);
+      synchronized (mergeLock) {
+        try (Timer.Context ignored = metrics.getBufferQueryLatency().start()) {
+          queryHandled();
+        }
+      }
+      resultProduced();
+    } catch (Throwable t) {
+      fail(t);
+      deactivate();
+    } finally {
+      finish(reader);
+    }
+  }
+
+  /**
+   * Marks the statement as failed, so no further partitions are claimed and the steps of other
+   * readers which are still running do not produce results anymore.
+   */
+  private void fail(Throwable t) {
+    synchronized (mergeLock) {
+      final boolean notify;
+      synchronized (this) {
+        notify = !isClosed && !failed;
+        failed = true;
+      }
+
+      if (notify) {
+        log.error("query {} failed", queryId, t);
+        queryFailed(t);
+      }
+    }
+  }
+
+  /**
+   * A failed statement is deactivated once the last reader finished its step.
+   */
+  private synchronized void readerFinished() {
+    activeReaders--;
+    if (failed && activeReaders == 0) {
+      deactivate();
+    }
+  }
+
+  /**
+   * Returns the connection of the reader to its pool, the connection of the client is kept.
+   */
+  private void finish(PartitionReader reader) {
+    if (reader.ownsConnection) {
+      reader.close();
+    }
+  }
+
+  /**
+   * Claims the partitions of the next step. The first step reads a single partition, so the first
+   * result is not delayed.
+   *
+   * @return first partition and number of partitions or null if the reader has to finish
+   */
+  private synchronized int[] nextPartitions(int stepSize) {
+    if (isClosed
+        || stopped
+        || paused
+        || failed
+        || nextPartition >= partitionInfo.getPartitionCount()) {
+      readerFinished();
+      return null;
+    }
+
+    final int first = nextPartition;
+    final int count =
+        first == 0 ? 1 : Math.min(stepSize, partitionInfo.getPartitionCount() - first);
+    nextPartition += count;
+    return new int[] {first, count};
+  }
+
+  private void query(PartitionReader reader, int first, int count) {
+    for (int i = 0; i < count; i++) {
+      query(reader, first + i);
+    }
+
+    synchronized (mergeLock) {
+      if (hasFailed()) {
+        return;
+      }
 
+      try (Timer.Context ignored = metrics.getBufferQueryLatency().start()) {
+        queryHandled();
+      }
+    }
+    resultProduced();
+  }
+
+  private void query(PartitionReader reader, int partition) {
+    final Partition[] partitions = getPartitions(partition);
+    final int[] partitionIds = Arrays.stream(partitions).mapToInt(Partition::getId).toArray();
+
+    log.info("query {}: next partition {}", queryId, Arrays.toString(partitionIds));
+    recordPartitionRows(partitions);
+
+    final long start = System.nanoTime();
+    ResultSet resultSet = null;
+    try {
+      try (Timer.Context ignored = metrics.getSourceLatency().start()) {
+        resultSet = getResult(reader, partitionIds);
+      }
       log.info("data received");
-      dataBuffer.add(resultSet);
+      if (isStreaming()) {
+        final StreamingResultSet stream =
+            new StreamingResultSet(resultSet, fetchSize, scheduler.getReadExecutor());
+        resultSet = stream;
+
+        // the rows are taken without the lock, so other readers merge while this one waits for its
+        // source. their results may already contain a part of this partition.
+        for (ResultSet batch = stream.nextBatch(fetchSize);
+            batch != null;
+            batch = stream.nextBatch(fetchSize)) {
+          merge(batch);
+        }
+      } else {
+        merge(resultSet);
+      }
       log.info("received data handled");
 
-      incPartition();
+      synchronized (mergeLock) {
+        incPartition();
+      }
 
-      queryHandled();
+      // without a partition column the partition ids are part of the sql itself
+      QueryLog.getInstance()
+          .log(
+              new QueryLogRecord(
+                  queryId,
+                  partition,
+                  driver.hasPartitions() ? sqlTemplate : reader.sql,
+                  driver.hasPartitions() ? partitionIds : new int[0],
+                  System.nanoTime() - start,
+                  getFactEntries(partitions)));
+
+      if (reader.ownsConnection && !reader.connection.getAutoCommit()) {
+        // end the transaction of the cursor
+        reader.connection.commit();
+      }
     } catch (SQLException e) {
       throw new ProgressiveException(e);
+    } finally {
+      SqlUtils.closeSafe(resultSet);
+      reader.release();
     }
   }
 
-  private ResultSet getResult(LinkedHashMap<String, Integer> partitions) throws SQLException {
-    if (driver.hasPartitions()) {
-      int i = 1;
-      for (int partitionId : partitions.values()) {
-        preparedStatement.setInt(i++, partitionId);
+  private void merge(ResultSet resultSet) {
+    synchronized (mergeLock) {
+      try (Timer.Context ignored = metrics.getMergeLatency().start()) {
+        dataBuffer.add(resultSet);
       }
+    }
+  }
 
-      if (log.isInfoEnabled()) {
-        log.info("next statement {}", preparedStatement.toString().replaceAll("\\r\\n", " "));
+  /**
+   * Maps the n-th partition combination to the partitions of the source tables. The first table
+   * changes fastest.
+   */
+  private Partition[] getPartitions(int partition) {
+    final Partition[] result = new Partition[sourceTables.size()];
+    for (int i = 0; i < result.length; i++) {
+      final List<Partition> partitions =
+          partitionInfo.getPartitions(sourceTables.get(i).getSimple());
+      result[i] = partitions.get(partition % partitions.size());
+      partition /= partitions.size();
+    }
+    return result;
+  }
+
+  private void recordPartitionRows(Partition[] partitions) {
+    final long entries = getFactEntries(partitions);
+    if (entries >= 0) {
+      metrics.getPartitionRows().update(entries);
+    }
+  }
+
+  /**
+   * @return entries of the partition of the fact table or -1 if it is not read
+   */
+  private long getFactEntries(Partition[] partitions) {
+    for (int i = 0; i < partitions.length; i++) {
+      if (sourceTables.get(i).getSimple().equals(partitionInfo.getFactTable())) {
+        return partitions[i].getEntries();
       }
+    }
+    return -1;
+  }
 
-      try {
-        writer.write(preparedStatement.toString().replaceAll("\\r\\n", " ").replaceAll("\\n", " "));
-        writer.write('\n');
-        writer.flush();
-      } catch (IOException e) {
-        e.printStackTrace();
+  private ResultSet getResult(PartitionReader reader, int[] partitionIds) throws SQLException {
+    if (driver.hasPartitions()) {
+      for (int i = 0; i < partitionIds.length; i++) {
+        reader.preparedStatement.setInt(i + 1, partitionIds[i]);
       }
 
-      return preparedStatement.executeQuery();
+      return reader.preparedStatement.executeQuery();
     } else {
-      throw new UnsupportedOperationException();
-      // TODO
-      // final SqlIdentifier from = (SqlIdentifier) selectSource.getFrom();
-      //    final String table = driver.getPartitionTable(from.getSimple(), partition.getId());
-      // final SqlSelect select = (SqlSelect) selectSource.clone(SqlParserPos.ZERO);
-      //    select.setFrom(SqlUtils.getIdentifier(table));
-      //
-      //    final String sql = driver.toSql(select);
-      //  log.info("next statement {}", sql.replaceAll("\\r\\n", " "));
-      //
-      // try (Statement statement = connection.createStatement()) {
-      // return statement.executeQuery(sql);
-      // }
+      return reader.open(getPartitionTables(partitionIds)).executeQuery();
     }
   }
 
+  private List<String> getPartitionTables(int[] partitionIds) {
+    final List<String> partitionTables = new ArrayList<>(partitionIds.length);
+    for (int i = 0; i < partitionIds.length; i++) {
+      final String table = sourceTables.get(i).getSimple();
+      partitionTables.add(driver.getPartitionTable(table, partitionIds[i]));
+    }
+    return partitionTables;
+  }
+
+  private SqlTemplate getPartitionSql(List<String> partitionTables) {
+    final String key = selectSourceSql + "\n" + partitionTables;
+    SqlTemplate sql = partitionSql.get(key);
+    if (sql == null) {
+      final SqlSelect select = (SqlSelect) selectSource.clone(SqlParserPos.ZERO);
+      select.setFrom(transformFrom(select.getFrom(), partitionTables.iterator()));
+
+      sql = new SqlTemplate(driver.toSql(select));
+      partitionSql.put(key, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Replaces the source tables by their partition tables. The source tables are kept as aliases, so
+   * qualified columns still refer to them.
+   */
+  private SqlNode transformFrom(SqlNode node, Iterator<String> partitionTables) {
+    if (node instanceof SqlIdentifier) {
+      return SqlUtils.getAlias(partitionTables.next(), (SqlIdentifier) node);
+    }
+
+    final SqlJoin join = (SqlJoin) node;
+    final SqlNode left = transformFrom(join.getLeft(), partitionTables);
+    final SqlNode right = transformFrom(join.getRight(), partitionTables);
+    return new SqlJoin(
+        SqlParserPos.ZERO,
+        left,
+        join.isNaturalNode(),
+        join.getJoinTypeNode(),
+        right,
+        join.getConditionTypeNode(),
+        join.getCondition());
+  }
+
   protected abstract void queryHandled();
 
+  /**
+   * Called once if reading a partition failed, no further results will be produced by the
+   * statement.
+   */
+  protected void queryFailed(Throwable t) {
+    // do nothing
+  }
+
   @Override
   public ResultSetMetaData getMetaData() {
     return metaData;
@@ -192,17 +544,73 @@ public abstract class ProgressiveBaseStatement implements ProgressiveStatement {
     return readPartitions < partitionInfo.getPartitionCount();
   }
 
+  /**
+   * @return true if all partitions were read, the statement was stopped or it failed
+   */
   @Override
   public synchronized boolean isDone() {
-    return !hasPartitionsToRead();
+    return stopped || failed || !hasPartitionsToRead();
+  }
+
+  /**
+   * No further partitions are read and the statement is done. Steps which are already running are
+   * still merged.
+   */
+  protected final synchronized void stop() {
+    if (!stopped && hasPartitionsToRead()) {
+      log.info(
+          "stop after {} of {} partitions", readPartitions, partitionInfo.getPartitionCount());
+    }
+    stopped = true;
+  }
+
+  /**
+   * No further partitions are read until {@link #resume()} is called. Steps which are already
+   * running are still merged, afterwards the readers close their connections.
+   */
+  protected final synchronized void pause() {
+    paused = true;
+    deactivate();
+  }
+
+  /**
+   * Continues reading partitions after {@link #pause()}. A new reader is started if all readers
+   * already finished.
+   */
+  protected final void resume() {
+    final boolean restart;
+    synchronized (this) {
+      paused = false;
+      restart = activeReaders == 0 && !isClosed;
+
+      if (restart) {
+        readers.clear();
+        readers.add(new PartitionReader(null));
+        activeReaders = 1;
+      }
+    }
+
+    activate();
+    if (restart) {
+      startFetching();
+    }
   }
 
   @Override
   public synchronized void close() {
     isClosed = true;
+    deactivate();
 
     SqlUtils.closeSafe(dataBuffer);
-    SqlUtils.closeSafe(preparedStatement);
+    readers.forEach(PartitionReader::close);
+  }
+
+  protected final synchronized boolean isClosed() {
+    return isClosed;
+  }
+
+  protected final synchronized boolean hasFailed() {
+    return failed;
   }
 
   protected final synchronized int getReadPartitions() {
@@ -210,24 +618,103 @@ public abstract class ProgressiveBaseStatement implements ProgressiveStatement {
   }
 
   protected final synchronized double getProgress() {
+    if (partitionInfo.getPartitionCount() == 0) {
+      return 1.0;
+    }
     return (double) readPartitions / (double) partitionInfo.getPartitionCount();
   }
 
   private synchronized void incPartition() {
     readPartitions++;
+  }
+
+  private synchronized long getFetchTime() {
+    return fetchTime;
+  }
+
+  private synchronized void addFetchTime(long time) {
+    fetchTime += time;
+  }
+
+  /**
+   * Reads partitions either with the connection of the client or with a connection of the
+   * supplier, which is borrowed for each step.
+   */
+  private class PartitionReader implements AutoCloseable {
+
+    private final boolean ownsConnection;
+
+    private Connection connection;
 
-    for (SqlIdentifier table : sourceTables) {
-      final String tableName = table.getSimple();
-      final int readPartition = currentReadPartitions.get(tableName);
-      final int maxPartition = partitionInfo.getPartitionCount(tableName) - 1;
-      if (maxPartition > 0) {
-        if (readPartition == maxPartition) {
-          currentReadPartitions.put(tableName, 0);
-        } else {
-          currentReadPartitions.put(tableName, readPartition + 1);
-          break;
+    private PreparedStatement preparedStatement;
+
+    /**
+     * Statement, sql and partition tables of the partition combination which is read, only used if
+     * the driver has no partitions column.
+     */
+    private PreparedStatement partitionStatement;
+
+    private SqlTemplate sql;
+
+    private List<String> partitionTables = Collections.emptyList();
+
+    /**
+     * @param connection connection of the client or null to borrow one for each step
+     */
+    private PartitionReader(Connection connection) {
+      this.connection = connection;
+      this.ownsConnection = connection == null;
+    }
+
+    private void connect() throws SQLException {
+      if (connection == null) {
+        connection = connectionSupplier.get();
+      }
+
+      if (preparedStatement == null && driver.hasPartitions()) {
+        preparedStatement = connection.prepareStatement(driver.toSql(selectSource));
+
+        if (isStreaming()) {
+          driver.prepareStreaming(connection, preparedStatement, fetchSize);
         }
       }
     }
+
+    private PreparedStatement open(List<String> partitionTables) throws SQLException {
+      driver.openPartitions(connection, partitionTables);
+      this.partitionTables = partitionTables;
+
+      sql = getPartitionSql(partitionTables);
+      partitionStatement = connection.prepareStatement(sql.getSql());
+      return partitionStatement;
+    }
+
+    /**
+     * Closes the statement of the partition combination which was read, so its partitions can be
+     * closed.
+     */
+    private void release() {
+      SqlUtils.closeSafe(partitionStatement);
+      partitionStatement = null;
+      sql = null;
+
+      try {
+        driver.closePartitions(connection, partitionTables);
+      } catch (ProgressiveException e) {
+        log.warn("could not close partitions {}", partitionTables, e);
+      }
+      partitionTables = Collections.emptyList();
+    }
+
+    @Override
+    public void close() {
+      SqlUtils.closeSafe(preparedStatement);
+      preparedStatement = null;
+
+      if (ownsConnection) {
+        SqlUtils.closeSafe(connection);
+        connection = null;
+      }
+    }
   }
 }
@@ -19,7 +19,9 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
@@ -38,13 +40,33 @@ public class ProgressiveResultSet implements ResultSet {
 
 	@Override
 	public boolean next() throws SQLException {
-		if (results.isEmpty()) {
+		final Object[] next = nextRow();
+		if (next == null) {
 			return false;
 		}
-		row = results.poll();
+		row = next;
 		return true;
 	}
 
+	/**
+	 * @return the next row or null if there are no more rows
+	 */
+	protected Object[] nextRow() throws SQLException {
+		return results.poll();
+	}
+
+	/**
+	 * Removes all remaining rows. The rows are returned as they are stored, so they can be sent
+	 * without copying them cell by cell.
+	 */
+	public List<Object> drainRows() throws SQLException {
+		final List<Object> rows = new ArrayList<>();
+		for (Object[] next = nextRow(); next != null; next = nextRow()) {
+			rows.add(next);
+		}
+		return rows;
+	}
+
 	@Override
 	public void close() throws SQLException {
 
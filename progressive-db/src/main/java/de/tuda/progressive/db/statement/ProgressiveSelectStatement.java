@@ -2,64 +2,425 @@ package de.tuda.progressive.db.statement;
 
 import de.tuda.progressive.db.buffer.DataBuffer;
 import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.metrics.Metrics;
 import de.tuda.progressive.db.model.PartitionInfo;
 import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.util.SqlSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
-public class ProgressiveSelectStatement extends ProgressiveBaseStatement {
+public class ProgressiveSelectStatement extends ProgressiveBaseStatement
+    implements ListenableStatement {
 
   private static final Logger log = LoggerFactory.getLogger(ProgressiveSelectStatement.class);
 
   private List<Object[]> results = new ArrayList<>();
 
+  /**
+   * Whether a result was produced since the last fetch. A delta without changed groups is an empty
+   * result, which still reports the new progress to the client.
+   */
+  private boolean resultPending;
+
+  private final DeltaFilter deltaFilter;
+
+  private final ErrorBound errorBound;
+
+  /**
+   * Guards the results, waiting fetches do not block a monitor.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition resultsChanged = lock.newCondition();
+
+  private ResultListener listener;
+
+  private boolean listenerDone;
+
+  private boolean failed;
+
+  private Throwable failure;
+
+  /**
+   * Statements of identical queries which follow the results of this statement, see {@link
+   * SharedSelectStatement}.
+   */
+  private final Set<ResultListener> subscribers = new HashSet<>();
+
+  private List<Object[]> lastRows;
+
+  /**
+   * Number of clients which did not close the statement yet, including the one which created it.
+   * The statement is closed once no client is left.
+   */
+  private int clients = 1;
+
+  private boolean closed;
+
+  private boolean started;
+
+  private boolean parked;
+
+  private Runnable unshare;
+
+  private Consumer<ProgressiveSelectStatement> released;
+
   public ProgressiveSelectStatement(
       DbDriver driver,
       Connection connection,
       JdbcSourceContext context,
       DataBuffer dataBuffer,
-      PartitionInfo partitionInfo) {
-    super(driver, connection, context, dataBuffer, partitionInfo);
+      PartitionInfo partitionInfo,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      Metrics metrics,
+      boolean delta,
+      ErrorBound errorBound) {
+    super(
+        driver,
+        connection,
+        context,
+        dataBuffer,
+        partitionInfo,
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        metrics);
+
+    this.deltaFilter = delta ? new DeltaFilter(context.getMetaFields()) : null;
+    this.errorBound = errorBound;
   }
 
   @Override
-  protected synchronized void queryHandled() {
+  protected void queryHandled() {
     log.info("run cache query");
 
-    List<Object[]> rows = dataBuffer.get(getReadPartitions(), getProgress());
-    results.addAll(rows);
+    lock.lock();
+    try {
+      List<Object[]> rows = dataBuffer.get(getReadPartitions(), getProgress());
+      if (errorBound != null && errorBound.isReached(rows)) {
+        stop();
+      }
+
+      lastRows = rows;
+      subscribers.forEach(s -> s.onResult(lastRows, getReadPartitions(), getProgress()));
+      if (isDone()) {
+        subscribers.forEach(ResultListener::onDone);
+        unshare();
+      }
+
+      if (closed) {
+        return;
+      }
+
+      if (deltaFilter != null) {
+        rows = deltaFilter.filter(rows, getProgress());
+      }
+
+      if (listener == null) {
+        results.addAll(rows);
+        resultPending = true;
+      } else {
+        listener.onResult(rows, getReadPartitions(), getProgress());
+
+        if (isDone() && !listenerDone) {
+          listenerDone = true;
+          listener.onDone();
+        }
+      }
 
-    log.info("cache results received");
+      log.info("cache results received");
 
-    notify();
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
-  public synchronized ResultSet getResultSet() {
-    if (results.isEmpty() && !isDone()) {
-      try {
-        wait();
-      } catch (InterruptedException e) {
-        // do nothing
+  protected void queryFailed(Throwable t) {
+    lock.lock();
+    try {
+      failed = true;
+      failure = t;
+
+      subscribers.forEach(s -> s.onError(t));
+      unshare();
+
+      if (listener != null && !listenerDone) {
+        listenerDone = true;
+        listener.onError(t);
       }
+
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
     }
+  }
+
+  /**
+   * Allows identical queries to join this statement until it is done.
+   *
+   * @param unshare called once the statement cannot be joined anymore
+   * @param released called instead of closing the statement once no client is left, has to
+   *     {@link #park()} or {@link #dispose()} it
+   */
+  void share(Runnable unshare, Consumer<ProgressiveSelectStatement> released) {
+    lock.lock();
+    try {
+      this.unshare = unshare;
+      this.released = released;
+    } finally {
+      lock.unlock();
+    }
+  }
 
-    ResultSet resultSet = new ProgressiveResultSet(metaData, new LinkedList<>(results));
-    results.clear();
-    return resultSet;
+  private void unshare() {
+    if (unshare != null) {
+      unshare.run();
+      unshare = null;
+    }
   }
 
+  /**
+   * Registers another client, which keeps the statement open until it calls {@link
+   * #unsubscribe(ResultListener)}.
+   *
+   * @return false if the statement is already done or closed and cannot be joined
+   */
+  boolean retain() {
+    lock.lock();
+    try {
+      if (clients == 0 || failed || isDone()) {
+        return false;
+      }
+
+      clients++;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Starts the statement once, no matter if it is run by its own client or by a subscriber.
+   */
   @Override
-  public synchronized void close() {
+  public void run() {
+    lock.lock();
+    try {
+      if (started) {
+        return;
+      }
+
+      started = true;
+    } finally {
+      lock.unlock();
+    }
+    super.run();
+  }
+
+  /**
+   * Pushes the results of the statement to the listener, starting with the current result. Runs
+   * the statement if its own client did not yet.
+   */
+  void subscribe(ResultListener subscriber) {
+    lock.lock();
+    try {
+      subscribers.add(subscriber);
+
+      if (lastRows != null) {
+        subscriber.onResult(lastRows, getReadPartitions(), getProgress());
+      }
+      if (failed) {
+        subscriber.onError(failure);
+      } else if (isDone()) {
+        subscriber.onDone();
+      }
+    } finally {
+      lock.unlock();
+    }
+    run();
+  }
+
+  void unsubscribe(ResultListener subscriber) {
+    lock.lock();
+    try {
+      subscribers.remove(subscriber);
+    } finally {
+      lock.unlock();
+    }
+    release();
+  }
+
+  private void release() {
+    final Consumer<ProgressiveSelectStatement> released;
+    lock.lock();
+    try {
+      if (--clients > 0) {
+        return;
+      }
+
+      unshare();
+      released = this.released;
+    } finally {
+      lock.unlock();
+    }
+
+    if (released == null) {
+      dispose();
+    } else {
+      released.accept(this);
+    }
+  }
+
+  /**
+   * Stops reading partitions but keeps the buffer, so the statement can be continued by {@link
+   * #unpark(Runnable)}. Source connections are only held during steps, so once the running steps
+   * finished a parked statement keeps none of them.
+   *
+   * @return false if there is no result to continue from or nothing left to read
+   */
+  boolean park() {
+    lock.lock();
+    try {
+      if (clients > 0 || failed || lastRows == null || isDone()) {
+        return false;
+      }
+
+      pause();
+      parked = true;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Continues reading the partitions of a parked statement for a new client, which has to follow
+   * the statement with a {@link SharedSelectStatement}.
+   *
+   * @param unshare called once the statement cannot be joined anymore
+   */
+  void unpark(Runnable unshare) {
+    lock.lock();
+    try {
+      if (!parked) {
+        throw new IllegalStateException("statement is not parked");
+      }
+
+      parked = false;
+      clients = 1;
+      this.unshare = unshare;
+    } finally {
+      lock.unlock();
+    }
+    resume();
+  }
+
+  boolean isFailed() {
+    lock.lock();
+    try {
+      return failed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return latest result of all clients or null if no partition was merged yet
+   */
+  List<Object[]> getLastRows() {
+    lock.lock();
+    try {
+      return lastRows;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the statement and its buffer.
+   */
+  void dispose() {
     super.close();
 
-    notify();
+    lock.lock();
+    try {
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setListener(ResultListener listener) {
+    lock.lock();
+    try {
+      this.listener = listener;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public ResultSet getResultSet() {
+    lock.lock();
+    try {
+      awaitResults();
+
+      ResultSet resultSet = new ProgressiveResultSet(metaData, new LinkedList<>(results));
+      results.clear();
+      resultPending = false;
+      return resultSet;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void awaitResults() {
+    try {
+      while (!resultPending && !isDone() && !closed && !failed) {
+        resultsChanged.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Closes the statement for the client which created it. Reading partitions continues as long as
+   * statements of identical queries follow it.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      results.clear();
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    release();
   }
 
   @Override
@@ -7,6 +7,8 @@ import java.sql.ResultSetMetaData;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ProgressiveViewSelectStatement
     implements ProgressiveStatement, ProgressiveListener {
@@ -17,6 +19,12 @@ public class ProgressiveViewSelectStatement
 
   private List<Object[]> results = new ArrayList<>();
 
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition resultsChanged = lock.newCondition();
+
+  private boolean closed;
+
   public ProgressiveViewSelectStatement(
       ProgressiveViewStatement view, SelectDataBuffer dataBuffer) {
     this.view = view;
@@ -24,26 +32,40 @@ public class ProgressiveViewSelectStatement
   }
 
   @Override
-  public synchronized void handle() {
-    List<Object[]> rows = dataBuffer.get(view.getReadPartitions(), view.getProgress());
-    results.addAll(rows);
+  public void handle() {
+    lock.lock();
+    try {
+      List<Object[]> rows = dataBuffer.get(view.getReadPartitions(), view.getProgress());
+      results.addAll(rows);
 
-    notify();
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
-  public synchronized ResultSet getResultSet() {
-    if (results.isEmpty() && !isDone()) {
-      try {
-        wait();
-      } catch (InterruptedException e) {
-        // do nothing
-      }
+  public ResultSet getResultSet() {
+    lock.lock();
+    try {
+      awaitResults();
+
+      ResultSet resultSet = new ProgressiveResultSet(getMetaData(), new LinkedList<>(results));
+      results.clear();
+      return resultSet;
+    } finally {
+      lock.unlock();
     }
+  }
 
-    ResultSet resultSet = new ProgressiveResultSet(getMetaData(), new LinkedList<>(results));
-    results.clear();
-    return resultSet;
+  private void awaitResults() {
+    try {
+      while (results.isEmpty() && !isDone() && !closed) {
+        resultsChanged.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
   @Override
@@ -63,8 +85,17 @@ public class ProgressiveViewSelectStatement
 
   @Override
   public void close() {
-    SqlUtils.closeSafe(dataBuffer);
     view.removeListener(this);
+
+    lock.lock();
+    try {
+      closed = true;
+      SqlUtils.closeSafe(dataBuffer);
+
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -2,8 +2,10 @@ package de.tuda.progressive.db.statement;
 
 import de.tuda.progressive.db.buffer.DataBuffer;
 import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.metrics.Metrics;
 import de.tuda.progressive.db.model.PartitionInfo;
 import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.util.SqlSupplier;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -22,8 +24,23 @@ public class ProgressiveViewStatement extends ProgressiveBaseStatement {
       Connection connection,
       JdbcSourceContext context,
       DataBuffer dataBuffer,
-      PartitionInfo partitionInfo) {
-    super(driver, connection, context, dataBuffer, partitionInfo);
+      PartitionInfo partitionInfo,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      Metrics metrics) {
+    super(
+        driver,
+        connection,
+        context,
+        dataBuffer,
+        partitionInfo,
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        metrics);
 
     this.resultSet = new ProgressiveResultSet(metaData, new LinkedList<>());
   }
@@ -0,0 +1,137 @@
+package de.tuda.progressive.db.statement;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the partition steps of all running queries on a fixed number of threads. Waiting steps
+ * are ordered by the fetch time their query already consumed, so new queries get their first
+ * result early and long running queries share the threads fairly.
+ */
+public class QueryScheduler implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryScheduler.class);
+
+  public static final int DEFAULT_THREADS = 5;
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final ThreadPoolExecutor executor;
+
+  private final StepSizeEstimator stepSizeEstimator;
+
+  private final ExecutorService readExecutor =
+      Executors.newCachedThreadPool(new SchedulerThreadFactory("progressive-reader-"));
+
+  public QueryScheduler() {
+    this(DEFAULT_THREADS);
+  }
+
+  public QueryScheduler(int threads) {
+    this(threads, 0);
+  }
+
+  /**
+   * @param refreshInterval target interval in milliseconds between two results of a query, 0 to
+   *     read one partition per step
+   */
+  public QueryScheduler(int threads, long refreshInterval) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be greater than 0");
+    }
+
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            new SchedulerThreadFactory("progressive-scheduler-"));
+    this.stepSizeEstimator = new StepSizeEstimator(refreshInterval);
+  }
+
+  /**
+   * @param fetchTime time in nanoseconds the query already spent fetching partitions
+   * @param step next step of the query
+   */
+  public void schedule(long fetchTime, Runnable step) {
+    executor.execute(new Step(fetchTime, sequence.getAndIncrement(), step));
+  }
+
+  /**
+   * Executes tasks which read from the source while a step merges the rows. They must not be
+   * scheduled as steps, because the step waits for them.
+   */
+  public Executor getReadExecutor() {
+    return readExecutor;
+  }
+
+  public StepSizeEstimator getStepSizeEstimator() {
+    return stepSizeEstimator;
+  }
+
+  public int getQueueSize() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void close() {
+    log.info("shutting down scheduler");
+    executor.shutdownNow();
+    readExecutor.shutdownNow();
+  }
+
+  private static class Step implements Runnable, Comparable<Step> {
+
+    private final long fetchTime;
+
+    private final long sequence;
+
+    private final Runnable runnable;
+
+    private Step(long fetchTime, long sequence, Runnable runnable) {
+      this.fetchTime = fetchTime;
+      this.sequence = sequence;
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+      runnable.run();
+    }
+
+    @Override
+    public int compareTo(Step other) {
+      final int result = Long.compare(fetchTime, other.fetchTime);
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+
+  private static class SchedulerThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final String prefix;
+
+    private SchedulerThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.model.Partition;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reads the partitions in a random permutation. The same seed yields the same order, so repeated
+ * queries produce the same intermediate results.
+ */
+public class RandomPartitionOrder implements PartitionOrder {
+
+  private final long seed;
+
+  public RandomPartitionOrder(long seed) {
+    this.seed = seed;
+  }
+
+  @Override
+  public List<Partition> order(String table, List<Partition> partitions) {
+    final List<Partition> result = new ArrayList<>(partitions);
+    Collections.shuffle(result, new Random(seed));
+    return result;
+  }
+}
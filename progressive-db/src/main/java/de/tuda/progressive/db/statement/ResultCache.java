@@ -0,0 +1,142 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.util.DetachedResultSetMetaData;
+import de.tuda.progressive.db.util.LruCache;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the results of progressive selects after their last client closed them. Final results are
+ * served without reading the source again, unfinished statements are parked with their buffer and
+ * continue from the last partition read. Entries are dropped once the partitions of a table
+ * change.
+ */
+public class ResultCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+  public static final int DEFAULT_RESULTS = 256;
+
+  /**
+   * Parked statements keep the connection of their buffer, so the limit must leave connections of
+   * the buffer pool to running statements.
+   */
+  public static final int DEFAULT_PARKED = 8;
+
+  private final LruCache<String, Result> results;
+
+  private final LruCache<String, ProgressiveSelectStatement> parked;
+
+  private final AtomicLong version = new AtomicLong();
+
+  public ResultCache() {
+    this(DEFAULT_RESULTS, DEFAULT_PARKED);
+  }
+
+  /**
+   * @param results max. number of final results
+   * @param parked max. number of parked statements, each of them keeps its buffer, 0 to not park
+   *     statements
+   */
+  public ResultCache(int results, int parked) {
+    this.results = new LruCache<>(results);
+    this.parked =
+        parked > 0 ? new LruCache<>(parked, (key, statement) -> statement.dispose()) : null;
+  }
+
+  /**
+   * @return key of the query for the current partitions
+   */
+  public String getKey(String query) {
+    return version.get() + "\n" + query;
+  }
+
+  public Result getResult(String key) {
+    return results.get(key);
+  }
+
+  /**
+   * @return the parked statement of the query, which is removed from the cache, or null
+   */
+  ProgressiveSelectStatement takeParked(String key) {
+    return parked == null ? null : parked.remove(key);
+  }
+
+  /**
+   * Keeps the result of a statement without clients, the statement is disposed if it cannot be
+   * continued.
+   */
+  void release(String key, ProgressiveSelectStatement statement) {
+    if (!key.startsWith(version.get() + "\n") || statement.isFailed()) {
+      statement.dispose();
+    } else if (statement.isDone()) {
+      try {
+        results.put(
+            key,
+            new Result(
+                statement.getLastRows(),
+                new DetachedResultSetMetaData(statement.getMetaData()),
+                statement.getReadPartitions(),
+                statement.getProgress()));
+      } catch (SQLException e) {
+        log.warn("could not cache result", e);
+      }
+      statement.dispose();
+    } else if (parked != null && statement.park()) {
+      log.info("park statement after {} partitions", statement.getReadPartitions());
+      parked.put(key, statement);
+    } else {
+      statement.dispose();
+    }
+  }
+
+  /**
+   * Drops all entries, called once the partitions of a table change.
+   */
+  public void invalidate() {
+    version.incrementAndGet();
+    results.clear();
+    if (parked != null) {
+      parked.clear();
+    }
+  }
+
+  public static class Result {
+
+    private final List<Object[]> rows;
+
+    private final ResultSetMetaData metaData;
+
+    private final int partitions;
+
+    private final double progress;
+
+    public Result(
+        List<Object[]> rows, ResultSetMetaData metaData, int partitions, double progress) {
+      this.rows = rows;
+      this.metaData = metaData;
+      this.partitions = partitions;
+      this.progress = progress;
+    }
+
+    public List<Object[]> getRows() {
+      return rows;
+    }
+
+    public ResultSetMetaData getMetaData() {
+      return metaData;
+    }
+
+    public int getPartitions() {
+      return partitions;
+    }
+
+    public double getProgress() {
+      return progress;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package de.tuda.progressive.db.statement;
+
+import java.util.List;
+
+/**
+ * Receives the results of a progressive statement as soon as new partitions are merged, instead of
+ * polling them with {@link ProgressiveStatement#getResultSet()}.
+ */
+public interface ResultListener {
+
+  /**
+   * @param rows current result
+   * @param partitions number of partitions read so far
+   * @param progress share of partitions read so far
+   */
+  void onResult(List<Object[]> rows, int partitions, double progress);
+
+  void onDone();
+
+  void onError(Throwable t);
+}
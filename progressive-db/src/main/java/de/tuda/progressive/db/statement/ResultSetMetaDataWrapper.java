@@ -6,6 +6,7 @@ import de.tuda.progressive.db.util.SqlFunction;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Arrays;
 
 public class ResultSetMetaDataWrapper implements ResultSetMetaData {
 
@@ -42,6 +43,26 @@ public class ResultSetMetaDataWrapper implements ResultSetMetaData {
 		this.columnClassNames = get(metaData::getColumnClassName);
 	}
 
+	/**
+	 * Creates meta data for rows which are not backed by a result set.
+	 */
+	public ResultSetMetaDataWrapper(
+			String[] columnLabels, int[] columnTypes, String[] columnTypeNames, String[] columnClassNames) {
+		final String[] empty = new String[columnLabels.length];
+		Arrays.fill(empty, "");
+
+		this.metaData = null;
+		this.columnCount = columnLabels.length;
+		this.columnTypes = columnTypes;
+		this.columnTypeNames = columnTypeNames;
+		this.columnLabels = columnLabels;
+		this.columnNames = columnLabels;
+		this.tableNames = empty;
+		this.schemaNames = empty;
+		this.catalogNames = empty;
+		this.columnClassNames = columnClassNames;
+	}
+
 	private int[] getColumnTypes(ResultSetMetaData metaData) {
 		try {
 			int[] types = new int[metaData.getColumnCount()];
@@ -110,7 +131,7 @@ public class ResultSetMetaDataWrapper implements ResultSetMetaData {
 
 	@Override
 	public int getColumnDisplaySize(int column) throws SQLException {
-		return metaData.getColumnDisplaySize(column);
+		return metaData == null ? 0 : metaData.getColumnDisplaySize(column);
 	}
 
 	@Override
@@ -174,7 +195,7 @@ public class ResultSetMetaDataWrapper implements ResultSetMetaData {
 
 	@Override
 	public boolean isDefinitelyWritable(int column) throws SQLException {
-		return metaData.isDefinitelyWritable(column);
+		return metaData != null && metaData.isDefinitelyWritable(column);
 	}
 
 	@Override
@@ -184,11 +205,20 @@ public class ResultSetMetaDataWrapper implements ResultSetMetaData {
 
 	@Override
 	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (metaData == null) {
+			if (iface.isInstance(this)) {
+				return iface.cast(this);
+			}
+			throw new SQLException("not a wrapper for " + iface);
+		}
 		return metaData.unwrap(iface);
 	}
 
 	@Override
 	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		if (metaData == null) {
+			return iface.isInstance(this);
+		}
 		return metaData.isWrapperFor(iface);
 	}
 }
@@ -0,0 +1,190 @@
+package de.tuda.progressive.db.statement;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Follows a running {@link ProgressiveSelectStatement} of an identical query instead of reading
+ * the partitions again. Starts with the current result of the followed statement.
+ */
+public class SharedSelectStatement implements ListenableStatement, ResultListener {
+
+  private final ProgressiveSelectStatement statement;
+
+  private final DeltaFilter deltaFilter;
+
+  private List<Object[]> results = new ArrayList<>();
+
+  /**
+   * Whether a result was produced since the last fetch. A delta without changed groups is an empty
+   * result, which still reports the new progress to the client.
+   */
+  private boolean resultPending;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition resultsChanged = lock.newCondition();
+
+  private ResultListener listener;
+
+  private boolean done;
+
+  private boolean failed;
+
+  private boolean closed;
+
+  /**
+   * @param statement statement to follow, which has to be retained for this statement
+   * @param deltaFilter filter of the results or null to get all results
+   */
+  public SharedSelectStatement(ProgressiveSelectStatement statement, DeltaFilter deltaFilter) {
+    this.statement = statement;
+    this.deltaFilter = deltaFilter;
+  }
+
+  @Override
+  public void onResult(List<Object[]> rows, int partitions, double progress) {
+    lock.lock();
+    try {
+      if (done || closed) {
+        return;
+      }
+
+      if (deltaFilter != null) {
+        rows = deltaFilter.filter(rows, progress);
+      }
+
+      if (listener == null) {
+        results.addAll(rows);
+        resultPending = true;
+      } else {
+        listener.onResult(rows, partitions, progress);
+      }
+
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void onDone() {
+    lock.lock();
+    try {
+      if (done || closed) {
+        return;
+      }
+
+      done = true;
+      if (listener != null) {
+        listener.onDone();
+      }
+
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    lock.lock();
+    try {
+      if (done || closed) {
+        return;
+      }
+
+      done = true;
+      failed = true;
+      if (listener != null) {
+        listener.onError(t);
+      }
+
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setListener(ResultListener listener) {
+    lock.lock();
+    try {
+      this.listener = listener;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public ResultSet getResultSet() {
+    lock.lock();
+    try {
+      awaitResults();
+
+      ResultSet resultSet = new ProgressiveResultSet(getMetaData(), new LinkedList<>(results));
+      results.clear();
+      resultPending = false;
+      return resultSet;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void awaitResults() {
+    try {
+      while (!resultPending && !done && !closed) {
+        resultsChanged.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() {
+    return statement.getMetaData();
+  }
+
+  @Override
+  public boolean isDone() {
+    lock.lock();
+    try {
+      return done && !failed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void run() {
+    statement.subscribe(this);
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      resultsChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    statement.unsubscribe(this);
+  }
+
+  @Override
+  public boolean closeWithStatement() {
+    return true;
+  }
+}
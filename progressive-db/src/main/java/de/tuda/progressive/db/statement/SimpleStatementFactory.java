@@ -6,6 +6,7 @@ import de.tuda.progressive.db.buffer.SelectDataBuffer;
 import de.tuda.progressive.db.buffer.impl.JdbcDataBuffer;
 import de.tuda.progressive.db.driver.DbDriver;
 import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.metrics.Metrics;
 import de.tuda.progressive.db.model.Column;
 import de.tuda.progressive.db.model.Partition;
 import de.tuda.progressive.db.model.PartitionInfo;
@@ -16,11 +17,14 @@ import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
 import de.tuda.progressive.db.statement.context.impl.BaseContext;
 import de.tuda.progressive.db.statement.context.impl.BaseContextFactory;
 import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.util.SqlSupplier;
 import java.sql.Connection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.calcite.sql.SqlJoin;
@@ -38,26 +42,111 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
 
   private final Map<String, ProgressiveViewStatement> viewStatements = new HashMap<>();
 
+  /**
+   * Running selects by their query, identical queries follow them instead of reading the
+   * partitions again.
+   */
+  private final ConcurrentMap<String, ProgressiveSelectStatement> sharedStatements =
+      new ConcurrentHashMap<>();
+
+  private final ResultCache resultCache;
+
   private final DbDriver driver;
 
   private final MetaData metaData;
 
   private final Function<SqlIdentifier, Column> columnMapper;
 
+  private final PartitionPruner partitionPruner;
+
   private final BaseContextFactory contextFactory;
 
   private final DataBufferFactory dataBufferFactory;
 
+  private final SqlSupplier<Connection> connectionSupplier;
+
+  private final int parallelism;
+
+  private final int fetchSize;
+
+  private final QueryScheduler scheduler;
+
+  private final PartitionOrder partitionOrder;
+
+  private final Metrics metrics;
+
   public SimpleStatementFactory(
       DbDriver driver,
       MetaData metaData,
       BaseContextFactory contextFactory,
       DataBufferFactory dataBufferFactory) {
+    this(
+        driver,
+        metaData,
+        contextFactory,
+        dataBufferFactory,
+        null,
+        1,
+        0,
+        new QueryScheduler(),
+        PartitionOrder.SEQUENTIAL,
+        Metrics.NOOP);
+  }
+
+  public SimpleStatementFactory(
+      DbDriver driver,
+      MetaData metaData,
+      BaseContextFactory contextFactory,
+      DataBufferFactory dataBufferFactory,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      PartitionOrder partitionOrder,
+      Metrics metrics) {
+    this(
+        driver,
+        metaData,
+        contextFactory,
+        dataBufferFactory,
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        partitionOrder,
+        metrics,
+        ResultCache.DEFAULT_PARKED);
+  }
+
+  /**
+   * @param maxParked max. number of unfinished selects which are kept to be continued, each of them
+   *     keeps the connection of its buffer
+   */
+  public SimpleStatementFactory(
+      DbDriver driver,
+      MetaData metaData,
+      BaseContextFactory contextFactory,
+      DataBufferFactory dataBufferFactory,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      int fetchSize,
+      QueryScheduler scheduler,
+      PartitionOrder partitionOrder,
+      Metrics metrics,
+      int maxParked) {
     this.driver = driver;
     this.metaData = metaData;
     this.columnMapper = metaData::getColumn;
+    this.partitionPruner = new PartitionPruner(metaData);
     this.contextFactory = contextFactory;
     this.dataBufferFactory = dataBufferFactory;
+    this.connectionSupplier = connectionSupplier;
+    this.parallelism = parallelism;
+    this.fetchSize = fetchSize;
+    this.scheduler = scheduler;
+    this.partitionOrder = partitionOrder;
+    this.metrics = metrics;
+    this.resultCache = new ResultCache(ResultCache.DEFAULT_RESULTS, maxParked);
   }
 
   @Override
@@ -71,14 +160,44 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
     if (viewStatement == null) {
       log.info("no view found");
 
-      final PartitionInfo partitionInfo = getJoinInfo(select);
       final JdbcSourceContext context = contextFactory.create(connection, select, columnMapper);
-      final DataBuffer dataBuffer = dataBufferFactory.create(context);
+      if (!isShareable()) {
+        return createSelectStatement(connection, select, context);
+      }
 
-      return new ProgressiveSelectStatement(driver, connection, context, dataBuffer, partitionInfo);
+      final String key =
+          resultCache.getKey(driver.toSql(context.getSelectSource()) + "\n" + select);
+      final DeltaFilter deltaFilter =
+          select.isWithDelta() ? new DeltaFilter(context.getMetaFields()) : null;
+
+      for (;;) {
+        final ProgressiveStatement found = findShared(key, deltaFilter);
+        if (found != null) {
+          return found;
+        }
+
+        // the statement must not depend on the connection of the client, which may leave earlier
+        final ProgressiveSelectStatement statement = createSelectStatement(null, select, context);
+        statement.share(
+            () -> sharedStatements.remove(key, statement),
+            released -> resultCache.release(key, released));
+
+        synchronized (sharedStatements) {
+          if (sharedStatements.putIfAbsent(key, statement) == null) {
+            return statement;
+          }
+        }
+
+        log.info("identical select was prepared concurrently");
+        statement.dispose();
+      }
     } else {
       log.info("view found");
 
+      if (select.getWithError() != null) {
+        throw new IllegalArgumentException("with error is not supported on views");
+      }
+
       final BaseContext context =
           contextFactory.create(viewStatement.getDataBuffer(), select, columnMapper);
       final SelectDataBuffer dataBuffer =
@@ -96,7 +215,7 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
 
     if (query instanceof SqlOrderBy) {
       final SqlOrderBy orderBy = (SqlOrderBy) query;
-      final SqlSelect select = (SqlSelect) orderBy.query;
+      final SqlSelect select = (SqlSelect) orderBy.query.clone(orderBy.query.getParserPosition());
       select.setOrderBy(orderBy.orderList);
 
       query = select;
@@ -118,6 +237,7 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
 
     final SqlIdentifier view = createProgressiveView.getName();
     final String viewName = normalizeViewName(view);
+    final PartitionInfo partitionInfo = getJoinInfo(select);
     final JdbcSourceContext context =
         contextFactory.create(connection, createProgressiveView, columnMapper);
 
@@ -125,10 +245,72 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
       throw new IllegalStateException("view already exists");
     } else {
       log.info("create new view");
-      return addViewStatement(connection, context, select, viewName);
+      return addViewStatement(connection, context, partitionInfo, viewName);
     }
   }
 
+  /**
+   * Looks up a running, cached or parked select of the query. Lookups and registrations are
+   * serialized, so an identical query is never read twice. Removals of finished statements do not
+   * take the monitor, hence following a statement cannot deadlock with its readers.
+   *
+   * @return the statement to follow or null if the query has to be read
+   */
+  private ProgressiveStatement findShared(String key, DeltaFilter deltaFilter) {
+    synchronized (sharedStatements) {
+      final ProgressiveSelectStatement running = sharedStatements.get(key);
+      if (running != null) {
+        if (running.retain()) {
+          log.info("follow running select");
+          return new SharedSelectStatement(running, deltaFilter);
+        }
+
+        // done or failed, but not unshared yet
+        sharedStatements.remove(key, running);
+      }
+
+      final ResultCache.Result result = resultCache.getResult(key);
+      if (result != null) {
+        log.info("cached result found");
+        return new CachedSelectStatement(result);
+      }
+
+      final ProgressiveSelectStatement parked = resultCache.takeParked(key);
+      if (parked != null) {
+        log.info("continue parked select");
+        parked.unpark(() -> sharedStatements.remove(key, parked));
+        sharedStatements.put(key, parked);
+        return new SharedSelectStatement(parked, deltaFilter);
+      }
+
+      return null;
+    }
+  }
+
+  private boolean isShareable() {
+    return connectionSupplier != null && driver.hasPartitions();
+  }
+
+  private ProgressiveSelectStatement createSelectStatement(
+      Connection connection, SqlSelectProgressive select, JdbcSourceContext context) {
+    final PartitionInfo partitionInfo = getJoinInfo(select);
+    final DataBuffer dataBuffer = dataBufferFactory.create(context);
+
+    return new ProgressiveSelectStatement(
+        driver,
+        connection,
+        context,
+        dataBuffer,
+        partitionInfo,
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        metrics,
+        select.isWithDelta(),
+        createErrorBound(select, context));
+  }
+
   private ProgressiveViewStatement getProgressiveView(SqlSelect select) {
     if (!(select.getFrom() instanceof SqlIdentifier)) {
       return null;
@@ -138,10 +320,27 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
     return viewStatements.get(normalizeViewName(from));
   }
 
+  private ErrorBound createErrorBound(SqlSelectProgressive select, JdbcSourceContext context) {
+    if (select.getWithError() == null) {
+      return null;
+    }
+
+    return new ErrorBound(
+        context.getMetaFields(),
+        select.getWithError().bigDecimalValue().doubleValue(),
+        select.getWithConfidence().bigDecimalValue().doubleValue());
+  }
+
   private PartitionInfo getJoinInfo(SqlSelect select) {
     final Map<String, List<Partition>> partitions = new HashMap<>();
     addPartitions(partitions, select.getFrom());
-    return new PartitionInfo(getFactTable(partitions), partitions);
+
+    final String factTable = getFactTable(partitions);
+    partitions.replaceAll((table, tablePartitions) ->
+        partitionPruner.prune(table, tablePartitions, select.getWhere()));
+    partitions.replaceAll(partitionOrder::order);
+
+    return new PartitionInfo(factTable, partitions);
   }
 
   private void addPartitions(Map<String, List<Partition>> partitions, SqlNode node) {
@@ -174,11 +373,23 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
   }
 
   private ProgressiveViewStatement addViewStatement(
-      Connection connection, JdbcSourceContext context, SqlSelect select, String viewName) {
+      Connection connection,
+      JdbcSourceContext context,
+      PartitionInfo partitionInfo,
+      String viewName) {
     final DataBuffer dataBuffer = dataBufferFactory.create(context);
-    final PartitionInfo partitionInfo = getJoinInfo(select);
     final ProgressiveViewStatement statement =
-        new ProgressiveViewStatement(driver, connection, context, dataBuffer, partitionInfo);
+        new ProgressiveViewStatement(
+            driver,
+            connection,
+            context,
+            dataBuffer,
+            partitionInfo,
+            connectionSupplier,
+            parallelism,
+            fetchSize,
+            scheduler,
+            metrics);
 
     viewStatements.put(viewName, statement);
 
@@ -234,6 +445,14 @@ public class SimpleStatementFactory implements ProgressiveStatementFactory {
 
   @Override
   public ProgressiveStatement prepare(Connection connection, SqlPrepareTable prepare) {
-    return new PrepareStatement(driver, connection, metaData, prepare.getName().getSimple());
+    return new PrepareStatement(
+        driver,
+        connection,
+        metaData,
+        prepare.getName().getSimple(),
+        () -> {
+          contextFactory.clearCache();
+          resultCache.invalidate();
+        });
   }
 }
@@ -0,0 +1,73 @@
+package de.tuda.progressive.db.statement;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learns how long reading and merging one partition takes for each query shape and derives how
+ * many partitions a step has to read, so results are refreshed about once per target interval.
+ * Partitions are physical, so a step never reads less than one partition.
+ */
+public class StepSizeEstimator {
+
+  /** Weight of a new measurement in the moving average. */
+  private static final double WEIGHT = 0.3;
+
+  private final long targetNanos;
+
+  private final ConcurrentMap<String, Double> latencies = new ConcurrentHashMap<>();
+
+  /**
+   * @param targetInterval target refresh interval in milliseconds, 0 to read one partition per step
+   */
+  public StepSizeEstimator(long targetInterval) {
+    if (targetInterval < 0) {
+      throw new IllegalArgumentException("targetInterval must not be negative");
+    }
+
+    this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetInterval);
+  }
+
+  public boolean isEnabled() {
+    return targetNanos > 0;
+  }
+
+  /**
+   * @param shape identifies queries with the same costs per partition
+   * @param parallelism number of partitions the query reads concurrently
+   */
+  public int getStepSize(String shape, int parallelism) {
+    if (!isEnabled()) {
+      return 1;
+    }
+
+    final Double latency = latencies.get(shape);
+    if (latency == null || latency <= 0) {
+      return 1;
+    }
+
+    final double stepSize = targetNanos * parallelism / latency;
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(stepSize)));
+  }
+
+  /**
+   * @param partitions number of partitions read by the step
+   * @param time time in nanoseconds the step took
+   */
+  public void record(String shape, int partitions, long time) {
+    if (!isEnabled() || partitions < 1) {
+      return;
+    }
+
+    final double latency = (double) time / partitions;
+    latencies.merge(shape, latency, (old, value) -> old * (1 - WEIGHT) + value * WEIGHT);
+  }
+
+  /**
+   * @return average latency of a partition in nanoseconds or -1 if the shape is unknown
+   */
+  public double getLatency(String shape) {
+    return latencies.getOrDefault(shape, -1.0);
+  }
+}
@@ -0,0 +1,86 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sorts the partitions by the bounds of a column, splits them into strata of similar values and
+ * reads the strata round-robin. The first partitions therefore cover the whole value range of the
+ * column. Partitions are shuffled within their stratum.
+ */
+public class StratifiedPartitionOrder implements PartitionOrder {
+
+  private static final Logger log = LoggerFactory.getLogger(StratifiedPartitionOrder.class);
+
+  private final MetaData metaData;
+
+  private final String column;
+
+  private final long seed;
+
+  public StratifiedPartitionOrder(MetaData metaData, String column, long seed) {
+    this.metaData = metaData;
+    this.column = column;
+    this.seed = seed;
+  }
+
+  @Override
+  public List<Partition> order(String table, List<Partition> partitions) {
+    final Random random = new Random(seed);
+    final Map<Integer, PartitionColumn> bounds =
+        metaData.getPartitionColumns(table, column).stream()
+            .collect(Collectors.toMap(PartitionColumn::getPartition, bound -> bound));
+
+    if (bounds.isEmpty()) {
+      log.info("no bounds of column {} in table {}, use random order", column, table);
+
+      final List<Partition> result = new ArrayList<>(partitions);
+      Collections.shuffle(result, random);
+      return result;
+    }
+
+    final List<Partition> sorted = new ArrayList<>(partitions);
+    sorted.sort(Comparator.comparingDouble(partition -> getCenter(bounds, partition)));
+
+    final int size = sorted.size();
+    final int strataCount = (int) Math.ceil(Math.sqrt(size));
+    final List<List<Partition>> strata = new ArrayList<>();
+    for (int i = 0; i < strataCount; i++) {
+      final List<Partition> stratum =
+          new ArrayList<>(sorted.subList(i * size / strataCount, (i + 1) * size / strataCount));
+      Collections.shuffle(stratum, random);
+      strata.add(stratum);
+    }
+
+    final List<Partition> result = new ArrayList<>(size);
+    for (int i = 0; result.size() < size; i++) {
+      for (List<Partition> stratum : strata) {
+        if (i < stratum.size()) {
+          result.add(stratum.get(i));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return center of the column bounds of the partition, partitions without bounds are last
+   */
+  private double getCenter(Map<Integer, PartitionColumn> bounds, Partition partition) {
+    final PartitionColumn bound = bounds.get(partition.getId());
+    if (bound == null) {
+      return Double.MAX_VALUE;
+    }
+    return ((double) bound.getMin() + (double) bound.getMax()) / 2.0;
+  }
+}
@@ -0,0 +1,167 @@
+package de.tuda.progressive.db.statement;
+
+import de.tuda.progressive.db.util.SqlUtils;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a source result on another thread while it is consumed, so merging a partition into the
+ * buffer overlaps with fetching it. At most capacity rows are held in memory, plus the rows of the
+ * batch taken by {@link #nextBatch(int)}.
+ */
+public class StreamingResultSet extends ProgressiveResultSet {
+
+  private static final Object[] END = new Object[0];
+
+  private static final long POLL_MILLIS = 100;
+
+  private final BlockingQueue<Object[]> rows;
+
+  private volatile boolean finished;
+
+  private volatile boolean closed;
+
+  private volatile SQLException error;
+
+  private boolean wasNull;
+
+  public StreamingResultSet(ResultSet source, int capacity, Executor executor)
+      throws SQLException {
+    super(new ResultSetMetaDataWrapper(source.getMetaData()), null);
+
+    this.rows = new ArrayBlockingQueue<>(capacity);
+
+    final int columnCount = getMetaData().getColumnCount();
+    executor.execute(() -> read(source, columnCount));
+  }
+
+  private StreamingResultSet(ResultSetMetaData metaData, List<Object[]> rows) {
+    super(metaData, null);
+
+    this.rows = new ArrayBlockingQueue<>(rows.size(), false, rows);
+    this.finished = true;
+  }
+
+  /**
+   * Takes the next rows as a result of their own, so they can be merged while the following rows
+   * are read.
+   *
+   * @return at most max rows or null if all rows were taken
+   */
+  public ResultSet nextBatch(int max) throws SQLException {
+    final List<Object[]> batch = new ArrayList<>();
+    for (Object[] row = nextRow(); row != null; row = nextRow()) {
+      batch.add(row);
+      if (batch.size() >= max) {
+        break;
+      }
+    }
+    return batch.isEmpty() ? null : new StreamingResultSet(getMetaData(), batch);
+  }
+
+  private void read(ResultSet source, int columnCount) {
+    try {
+      while (!closed && source.next()) {
+        final Object[] row = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+          row[i] = source.getObject(i + 1);
+        }
+        put(row);
+      }
+    } catch (SQLException e) {
+      error = e;
+    } finally {
+      SqlUtils.closeSafe(source);
+      finished = true;
+      put(END);
+    }
+  }
+
+  private void put(Object[] row) {
+    try {
+      while (!closed && !rows.offer(row, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        // wait until the consumer catches up
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closed = true;
+    }
+  }
+
+  @Override
+  protected Object[] nextRow() throws SQLException {
+    try {
+      while (!closed) {
+        final Object[] row = rows.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (row == END || (row == null && finished && rows.isEmpty())) {
+          if (error != null) {
+            throw error;
+          }
+          return null;
+        }
+        if (row != null) {
+          return row;
+        }
+      }
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException(e);
+    }
+  }
+
+  @Override
+  public Object getObject(int columnIndex) throws SQLException {
+    final Object value = super.getObject(columnIndex);
+    wasNull = value == null;
+    return value;
+  }
+
+  private Number getNumber(int columnIndex) throws SQLException {
+    final Object value = getObject(columnIndex);
+    return value == null ? 0 : (Number) value;
+  }
+
+  @Override
+  public int getInt(int columnIndex) throws SQLException {
+    return getNumber(columnIndex).intValue();
+  }
+
+  @Override
+  public long getLong(int columnIndex) throws SQLException {
+    return getNumber(columnIndex).longValue();
+  }
+
+  @Override
+  public float getFloat(int columnIndex) throws SQLException {
+    return getNumber(columnIndex).floatValue();
+  }
+
+  @Override
+  public double getDouble(int columnIndex) throws SQLException {
+    return getNumber(columnIndex).doubleValue();
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    rows.clear();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+}
@@ -8,13 +8,21 @@ import de.tuda.progressive.db.sql.parser.SqlFutureNode;
 import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
 import de.tuda.progressive.db.statement.context.ContextFactory;
 import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.util.DetachedResultSetMetaData;
+import de.tuda.progressive.db.util.LruCache;
 import de.tuda.progressive.db.util.MetaFieldUtils;
 import de.tuda.progressive.db.util.SqlUtils;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -34,17 +42,32 @@ import org.apache.calcite.sql.SqlSelect;
 import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.sql.parser.SqlParserPos;
 import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 
 public abstract class BaseContextFactory<
     C1 extends JdbcSourceContext, C2 extends BaseContext, D extends DataBuffer>
     implements ContextFactory<C1, C2, D> {
 
+  private static final int SOURCE_META_DATA_CACHE_SIZE = 256;
+
   protected final DbDriver sourceDriver;
 
+  private final LruCache<String, ResultSetMetaData> sourceMetaData =
+      new LruCache<>(SOURCE_META_DATA_CACHE_SIZE);
+
   public BaseContextFactory(DbDriver sourceDriver) {
     this.sourceDriver = sourceDriver;
   }
 
+  /**
+   * Removes the cached meta data of source selects, has to be called if source tables are
+   * prepared again.
+   */
+  public void clearCache() {
+    sourceMetaData.clear();
+  }
+
   @Override
   public C1 create(
       Connection connection,
@@ -405,6 +428,128 @@ public abstract class BaseContextFactory<
     }
   }
 
+  protected final List<SqlIdentifier> getFieldNames(SqlNodeList selectList) {
+    final List<SqlIdentifier> fieldNames = new ArrayList<>(selectList.size());
+    for (SqlNode select : selectList) {
+      SqlIdentifier identifier = null;
+      if (select instanceof SqlBasicCall) {
+        SqlBasicCall call = (SqlBasicCall) select;
+
+        if (SqlStdOperatorTable.AS.equals(call.getOperator())) {
+          select = call.operands[1];
+        } else {
+          identifier = SqlUtils.getIdentifier(call.getOperator().getName());
+        }
+      } else if (select instanceof SqlFutureNode) {
+        SqlFutureNode futureNode = (SqlFutureNode) select;
+        select = futureNode.getNode();
+      }
+
+      if (identifier == null) {
+        if (!(select instanceof SqlIdentifier)) {
+          throw new IllegalArgumentException("future in select must contain an identifier");
+        }
+        identifier = (SqlIdentifier) select;
+      }
+      fieldNames.add(identifier);
+    }
+    return fieldNames;
+  }
+
+  private String getPrepareSql(SqlSelect select) {
+    if (!sourceDriver.hasPartitions()) {
+      select = (SqlSelect) select.clone(SqlParserPos.ZERO);
+      select.setFrom(transformFromPrepare(select.getFrom()));
+    }
+    return sourceDriver.toSql(select);
+  }
+
+  /**
+   * Meta data of the prepared source select. Preparing needs a round trip to the source, so the
+   * meta data is cached per select.
+   */
+  protected final ResultSetMetaData getSourceMetaData(Connection connection, SqlSelect select)
+      throws SQLException {
+    final String sql = getPrepareSql(select);
+    ResultSetMetaData metaData = sourceMetaData.get(sql);
+    if (metaData == null) {
+      final List<String> partitionTables = getPrepareTables(select);
+      sourceDriver.openPartitions(connection, partitionTables);
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        metaData = new DetachedResultSetMetaData(statement.getMetaData());
+      } finally {
+        sourceDriver.closePartitions(connection, partitionTables);
+      }
+      sourceMetaData.put(sql, metaData);
+    }
+    return metaData;
+  }
+
+  private List<String> getPrepareTables(SqlSelect select) {
+    if (sourceDriver.hasPartitions()) {
+      return Collections.emptyList();
+    }
+    return getTables(select.getFrom()).stream()
+        .map(table -> sourceDriver.getPartitionTable(table.getSimple(), 0))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Replaces the tables by their first partition. The tables are kept as aliases, so qualified
+   * columns still refer to them.
+   */
+  private SqlNode transformFromPrepare(SqlNode node) {
+    if (node instanceof SqlIdentifier) {
+      final SqlIdentifier identifier = (SqlIdentifier) node;
+      return SqlUtils.getAlias(
+          sourceDriver.getPartitionTable(identifier.getSimple(), 0), identifier);
+    } else {
+      final SqlJoin join = (SqlJoin) node;
+      // TODO currently just comma supported
+      return new SqlJoin(
+          SqlParserPos.ZERO,
+          transformFromPrepare(join.getLeft()),
+          SqlLiteral.createBoolean(false, SqlParserPos.ZERO),
+          JoinType.COMMA.symbol(SqlParserPos.ZERO),
+          transformFromPrepare(join.getRight()),
+          JoinConditionType.NONE.symbol(SqlParserPos.ZERO),
+          null);
+    }
+  }
+
+  protected final Map<Integer, Pair<Integer, Integer>> getBounds(
+      Function<SqlIdentifier, Column> columnMapper, List<MetaField> metaFields, SqlSelect select) {
+    final SqlNodeList selectList = select.getSelectList();
+    final List<SqlIdentifier> tables = getTables(select.getFrom());
+    final Map<Integer, Pair<Integer, Integer>> bounds = new HashMap<>();
+
+    for (int i = 0; i < metaFields.size(); i++) {
+      if (metaFields.get(i) == MetaField.CONFIDENCE_INTERVAL) {
+        SqlBasicCall node = (SqlBasicCall) selectList.get(i);
+        if (SqlStdOperatorTable.AS.equals(node.getOperator())) {
+          node = node.operand(0);
+        }
+
+        final SqlIdentifier columnIdentifier = node.operand(0);
+        Column column;
+        if (columnIdentifier.names.size() == 1) {
+          column = tables.stream()
+              .map(t -> SqlUtils.getIdentifier(t.getSimple(), columnIdentifier.getSimple()))
+              .map(columnMapper).filter(Objects::nonNull).findAny().get();
+        } else {
+          column = columnMapper.apply(columnIdentifier);
+        }
+
+        if (column == null) {
+          throw new IllegalArgumentException("column not found: " + columnIdentifier);
+        }
+        bounds.put(i, ImmutablePair.of((int) column.getMin(), (int) column.getMax()));
+      }
+    }
+
+    return bounds;
+  }
+
   protected String getMetaFieldName(int index, MetaField metaField) {
     if (metaField == MetaField.NONE) {
       return String.format("f%d", index);
@@ -13,7 +13,6 @@ import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
 import de.tuda.progressive.db.util.MetaFieldUtils;
 import de.tuda.progressive.db.util.SqlUtils;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -22,18 +21,14 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import org.apache.calcite.sql.JoinConditionType;
-import org.apache.calcite.sql.JoinType;
 import org.apache.calcite.sql.SqlBasicCall;
 import org.apache.calcite.sql.SqlDynamicParam;
 import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.calcite.sql.SqlInsert;
-import org.apache.calcite.sql.SqlJoin;
 import org.apache.calcite.sql.SqlLiteral;
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlNodeList;
@@ -76,10 +71,9 @@ public class JdbcContextFactory
     final boolean hasAggregation = MetaFieldUtils.hasAggregation(metaFields);
     final SqlNodeList indexColumns = getIndexColumns(metaFields, hasAggregation);
     final Map<Integer, Pair<Integer, Integer>> bounds = getBounds(columnMapper, metaFields, select);
-    final String sql = getPrepareSql(selectSource);
 
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
-      final ResultSetMetaData metaData = statement.getMetaData();
+    try {
+      final ResultSetMetaData metaData = getSourceMetaData(connection, selectSource);
       final String bufferTableName = generateBufferTableName();
       final SqlCreateTable createBuffer =
           getCreateBuffer(metaData, bufferFieldNames, bufferTableName, indexColumns);
@@ -134,10 +128,9 @@ public class JdbcContextFactory
     final boolean hasAggregation = MetaFieldUtils.hasAggregation(metaFields);
     final SqlNodeList indexColumns = getIndexColumns(metaFields, hasAggregation);
     final Map<Integer, Pair<Integer, Integer>> bounds = getBounds(columnMapper, metaFields, select);
-    final String sql = getPrepareSql(selectSource);
 
-    try (PreparedStatement statement = connection.prepareStatement(sql)) {
-      final ResultSetMetaData metaData = statement.getMetaData();
+    try {
+      final ResultSetMetaData metaData = getSourceMetaData(connection, selectSource);
       final String bufferTableName = view.getName().getSimple();
       final SqlCreateTable createBuffer =
           getCreateBuffer(metaData, bufferFieldNames, bufferTableName, indexColumns);
@@ -162,32 +155,6 @@ public class JdbcContextFactory
     }
   }
 
-  private String getPrepareSql(SqlSelect select) {
-    if (!sourceDriver.hasPartitions()) {
-      select = (SqlSelect) select.clone(SqlParserPos.ZERO);
-      select.setFrom(transformFromPrepare(select.getFrom()));
-    }
-    return sourceDriver.toSql(select);
-  }
-
-  private SqlNode transformFromPrepare(SqlNode node) {
-    if (node instanceof SqlIdentifier) {
-      final SqlIdentifier identifier = (SqlIdentifier) node;
-      return SqlUtils.getIdentifier(sourceDriver.getPartitionTable(identifier.getSimple(), 0));
-    } else {
-      final SqlJoin join = (SqlJoin) node;
-      // TODO currently just comma supported
-      return new SqlJoin(
-          SqlParserPos.ZERO,
-          transformFromPrepare(join.getLeft()),
-          SqlLiteral.createBoolean(false, SqlParserPos.ZERO),
-          JoinType.COMMA.symbol(SqlParserPos.ZERO),
-          transformFromPrepare(join.getRight()),
-          JoinConditionType.NONE.symbol(SqlParserPos.ZERO),
-          null);
-    }
-  }
-
   private Map<Integer, Pair<Integer, Integer>> getBounds(
       Function<SqlIdentifier, Integer> fieldMapper,
       List<MetaField> metaFields,
@@ -220,39 +187,6 @@ public class JdbcContextFactory
     return bounds;
   }
 
-  private Map<Integer, Pair<Integer, Integer>> getBounds(
-      Function<SqlIdentifier, Column> columnMapper, List<MetaField> metaFields, SqlSelect select) {
-    final SqlNodeList selectList = select.getSelectList();
-    final List<SqlIdentifier> tables = getTables(select.getFrom());
-    final Map<Integer, Pair<Integer, Integer>> bounds = new HashMap<>();
-
-    for (int i = 0; i < metaFields.size(); i++) {
-      if (metaFields.get(i) == MetaField.CONFIDENCE_INTERVAL) {
-        SqlBasicCall node = (SqlBasicCall) selectList.get(i);
-        if (SqlStdOperatorTable.AS.equals(node.getOperator())) {
-          node = node.operand(0);
-        }
-
-        final SqlIdentifier columnIdentifier = node.operand(0);
-        Column column;
-        if (columnIdentifier.names.size() == 1) {
-          column = tables.stream()
-              .map(t -> SqlUtils.getIdentifier(t.getSimple(), columnIdentifier.getSimple()))
-              .map(columnMapper).filter(Objects::nonNull).findAny().get();
-        } else {
-          column = columnMapper.apply(columnIdentifier);
-        }
-
-        if (column == null) {
-          throw new IllegalArgumentException("column not found: " + columnIdentifier);
-        }
-        bounds.put(i, ImmutablePair.of((int) column.getMin(), (int) column.getMax()));
-      }
-    }
-
-    return bounds;
-  }
-
   private Pair<SqlSelect, List<Integer>> transformSelect(
       JdbcBufferContext context, SqlSelectProgressive select) {
     final SqlSelect selectBuffer = context.getSelectBuffer();
@@ -452,34 +386,6 @@ public class JdbcContextFactory
     return ImmutableTriple.of((SqlIdentifier) node, index, metaField);
   }
 
-  private List<SqlIdentifier> getFieldNames(SqlNodeList selectList) {
-    final List<SqlIdentifier> fieldNames = new ArrayList<>(selectList.size());
-    for (SqlNode select : selectList) {
-      SqlIdentifier identifier = null;
-      if (select instanceof SqlBasicCall) {
-        SqlBasicCall call = (SqlBasicCall) select;
-
-        if (SqlStdOperatorTable.AS.equals(call.getOperator())) {
-          select = call.operands[1];
-        } else {
-          identifier = SqlUtils.getIdentifier(call.getOperator().getName());
-        }
-      } else if (select instanceof SqlFutureNode) {
-        SqlFutureNode futureNode = (SqlFutureNode) select;
-        select = futureNode.getNode();
-      }
-
-      if (identifier == null) {
-        if (!(select instanceof SqlIdentifier)) {
-          throw new IllegalArgumentException("future in select must contain an identifier");
-        }
-        identifier = (SqlIdentifier) select;
-      }
-      fieldNames.add(identifier);
-    }
-    return fieldNames;
-  }
-
   private List<String> getBufferFieldNames(List<MetaField> metaFields) {
     final List<String> fieldNames = new ArrayList<>();
     int i = 0;
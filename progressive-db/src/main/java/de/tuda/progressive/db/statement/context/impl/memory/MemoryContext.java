@@ -0,0 +1,83 @@
+package de.tuda.progressive.db.statement.context.impl.memory;
+
+import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import java.sql.ResultSetMetaData;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.commons.lang3.tuple.Pair;
+
+public class MemoryContext extends JdbcSourceContext {
+
+  private final List<SqlIdentifier> fieldNames;
+
+  private final ResultSetMetaData metaData;
+
+  /**
+   * Index of the result column and whether it is sorted descending.
+   */
+  private final List<Pair<Integer, Boolean>> orderBy;
+
+  public MemoryContext(
+      List<MetaField> metaFields,
+      Map<Integer, Pair<Integer, Integer>> bounds,
+      SqlSelect selectSource,
+      List<SqlIdentifier> sourceTables,
+      List<SqlIdentifier> fieldNames,
+      ResultSetMetaData metaData,
+      List<Pair<Integer, Boolean>> orderBy) {
+    super(metaFields, bounds, selectSource, sourceTables);
+
+    this.fieldNames = fieldNames;
+    this.metaData = metaData;
+    this.orderBy = orderBy == null ? Collections.emptyList() : orderBy;
+  }
+
+  public List<SqlIdentifier> getFieldNames() {
+    return fieldNames;
+  }
+
+  public ResultSetMetaData getMetaData() {
+    return metaData;
+  }
+
+  public List<Pair<Integer, Boolean>> getOrderBy() {
+    return orderBy;
+  }
+
+  public static class Builder extends JdbcSourceContext.AbstractBuilder<MemoryContext, Builder> {
+    private List<SqlIdentifier> fieldNames;
+
+    private ResultSetMetaData metaData;
+
+    private List<Pair<Integer, Boolean>> orderBy;
+
+    public Builder fieldNames(List<SqlIdentifier> fieldNames) {
+      this.fieldNames = fieldNames;
+      return this;
+    }
+
+    public Builder metaData(ResultSetMetaData metaData) {
+      this.metaData = metaData;
+      return this;
+    }
+
+    public Builder orderBy(List<Pair<Integer, Boolean>> orderBy) {
+      this.orderBy = orderBy;
+      return this;
+    }
+
+    @Override
+    protected MemoryContext build(
+        List<MetaField> metaFields,
+        Map<Integer, Pair<Integer, Integer>> bounds,
+        SqlSelect selectSource,
+        List<SqlIdentifier> sourceTables) {
+      return new MemoryContext(
+          metaFields, bounds, selectSource, sourceTables, fieldNames, metaData, orderBy);
+    }
+  }
+}
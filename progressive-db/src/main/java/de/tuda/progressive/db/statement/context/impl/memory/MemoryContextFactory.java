@@ -0,0 +1,184 @@
+package de.tuda.progressive.db.statement.context.impl.memory;
+
+import de.tuda.progressive.db.buffer.impl.MemoryDataBuffer;
+import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.model.Column;
+import de.tuda.progressive.db.sql.parser.SqlCreateProgressiveView;
+import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
+import de.tuda.progressive.db.statement.ResultSetMetaDataWrapper;
+import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.statement.context.impl.BaseContextFactory;
+import de.tuda.progressive.db.statement.context.impl.JdbcSourceContext;
+import de.tuda.progressive.db.util.ContextUtils;
+import de.tuda.progressive.db.util.MetaFieldUtils;
+import java.sql.Connection;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.calcite.sql.SqlBasicCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.SqlNumericLiteral;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Creates contexts for {@link MemoryDataBuffer}. Progressive views are not supported, because
+ * they have to be accessible by other queries of the buffer database.
+ */
+public class MemoryContextFactory
+    extends BaseContextFactory<MemoryContext, JdbcSourceContext, MemoryDataBuffer> {
+
+  public MemoryContextFactory(DbDriver sourceDriver) {
+    super(sourceDriver);
+  }
+
+  @Override
+  protected MemoryContext create(
+      Connection connection,
+      SqlSelectProgressive select,
+      Function<SqlIdentifier, Column> columnMapper,
+      List<MetaField> metaFields,
+      SqlSelect selectSource) {
+    final List<SqlIdentifier> fieldNames = getFieldNames(select.getSelectList());
+
+    try {
+      final ResultSetMetaData metaData =
+          getMetaData(getSourceMetaData(connection, selectSource), fieldNames, metaFields);
+
+      return new MemoryContext.Builder()
+          .metaFields(metaFields)
+          .bounds(getBounds(columnMapper, metaFields, select))
+          .selectSource(selectSource)
+          .sourceTables(getTables(select.getFrom()))
+          .fieldNames(fieldNames)
+          .metaData(metaData)
+          .orderBy(getOrderBy(select.getOrderList(), fieldNames, metaFields))
+          .build();
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
+  @Override
+  public JdbcSourceContext create(
+      MemoryDataBuffer dataBuffer,
+      SqlSelectProgressive select,
+      Function<SqlIdentifier, Column> columnMapper) {
+    throw new UnsupportedOperationException("progressive views are not supported in memory");
+  }
+
+  @Override
+  protected MemoryContext create(
+      Connection connection,
+      SqlCreateProgressiveView view,
+      Function<SqlIdentifier, Column> columnMapper,
+      List<MetaField> metaFields,
+      SqlSelect selectSource) {
+    throw new UnsupportedOperationException("progressive views are not supported in memory");
+  }
+
+  private ResultSetMetaData getMetaData(
+      ResultSetMetaData sourceMetaData, List<SqlIdentifier> fieldNames, List<MetaField> metaFields)
+      throws SQLException {
+    final List<String> labels = new ArrayList<>();
+    final List<Integer> types = new ArrayList<>();
+    final List<String> typeNames = new ArrayList<>();
+    final List<String> classNames = new ArrayList<>();
+
+    int sourceColumn = 1;
+    for (int i = 0; i < fieldNames.size(); i++) {
+      final MetaField metaField = metaFields.get(i);
+
+      switch (metaField) {
+        case FUTURE_GROUP:
+          // not part of the result
+          break;
+        case NONE:
+          types.add(sourceMetaData.getColumnType(sourceColumn));
+          typeNames.add(sourceMetaData.getColumnTypeName(sourceColumn));
+          classNames.add(sourceMetaData.getColumnClassName(sourceColumn));
+          break;
+        case PARTITION:
+          types.add(Types.INTEGER);
+          typeNames.add("INTEGER");
+          classNames.add(Integer.class.getName());
+          break;
+        default:
+          types.add(Types.DOUBLE);
+          typeNames.add("DOUBLE");
+          classNames.add(Double.class.getName());
+      }
+
+      if (metaField != MetaField.FUTURE_GROUP) {
+        final List<String> names = fieldNames.get(i).names;
+        labels.add(names.get(names.size() - 1));
+      }
+
+      sourceColumn += MetaFieldUtils.getSourceColumnCount(metaField);
+    }
+
+    return new ResultSetMetaDataWrapper(
+        labels.toArray(new String[0]),
+        types.stream().mapToInt(Integer::intValue).toArray(),
+        typeNames.toArray(new String[0]),
+        classNames.toArray(new String[0]));
+  }
+
+  private List<Pair<Integer, Boolean>> getOrderBy(
+      SqlNodeList orderList, List<SqlIdentifier> fieldNames, List<MetaField> metaFields) {
+    final List<Pair<Integer, Boolean>> orderBy = new ArrayList<>();
+    if (orderList == null) {
+      return orderBy;
+    }
+
+    for (SqlNode node : orderList) {
+      boolean descending = false;
+      if (node.getKind() == SqlKind.NULLS_FIRST || node.getKind() == SqlKind.NULLS_LAST) {
+        node = ((SqlBasicCall) node).operand(0);
+      }
+      if (node.getKind() == SqlKind.DESCENDING) {
+        descending = true;
+        node = ((SqlBasicCall) node).operand(0);
+      }
+
+      int index;
+      if (node instanceof SqlNumericLiteral) {
+        index = ((SqlNumericLiteral) node).intValue(true) - 1;
+      } else if (node instanceof SqlIdentifier) {
+        index = getResultIndex(ContextUtils.getFieldIndex(fieldNames, (SqlIdentifier) node),
+            metaFields);
+      } else {
+        index = -1;
+      }
+
+      if (index < 0) {
+        throw new IllegalArgumentException("order by not supported: " + node);
+      }
+      orderBy.add(ImmutablePair.of(index, descending));
+    }
+
+    return orderBy;
+  }
+
+  private int getResultIndex(int fieldIndex, List<MetaField> metaFields) {
+    if (fieldIndex < 0 || metaFields.get(fieldIndex) == MetaField.FUTURE_GROUP) {
+      return -1;
+    }
+
+    int index = 0;
+    for (int i = 0; i < fieldIndex; i++) {
+      if (metaFields.get(i) != MetaField.FUTURE_GROUP) {
+        index++;
+      }
+    }
+    return index;
+  }
+}
@@ -0,0 +1,190 @@
+package de.tuda.progressive.db.util;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Copy of the meta data of a result set which stays valid after its statement is closed.
+ */
+public class DetachedResultSetMetaData implements ResultSetMetaData {
+
+  private final int columnCount;
+
+  private final String[] columnLabels;
+
+  private final String[] columnNames;
+
+  private final String[] tableNames;
+
+  private final String[] schemaNames;
+
+  private final String[] catalogNames;
+
+  private final int[] columnTypes;
+
+  private final String[] columnTypeNames;
+
+  private final String[] columnClassNames;
+
+  private final int[] precisions;
+
+  private final int[] scales;
+
+  private final int[] displaySizes;
+
+  private final int[] nullables;
+
+  private final boolean[] signed;
+
+  public DetachedResultSetMetaData(ResultSetMetaData metaData) throws SQLException {
+    columnCount = metaData.getColumnCount();
+    columnLabels = new String[columnCount];
+    columnNames = new String[columnCount];
+    tableNames = new String[columnCount];
+    schemaNames = new String[columnCount];
+    catalogNames = new String[columnCount];
+    columnTypes = new int[columnCount];
+    columnTypeNames = new String[columnCount];
+    columnClassNames = new String[columnCount];
+    precisions = new int[columnCount];
+    scales = new int[columnCount];
+    displaySizes = new int[columnCount];
+    nullables = new int[columnCount];
+    signed = new boolean[columnCount];
+
+    for (int i = 0; i < columnCount; i++) {
+      final int column = i + 1;
+      columnLabels[i] = metaData.getColumnLabel(column);
+      columnNames[i] = metaData.getColumnName(column);
+      tableNames[i] = metaData.getTableName(column);
+      schemaNames[i] = metaData.getSchemaName(column);
+      catalogNames[i] = metaData.getCatalogName(column);
+      columnTypes[i] = metaData.getColumnType(column);
+      columnTypeNames[i] = metaData.getColumnTypeName(column);
+      columnClassNames[i] = metaData.getColumnClassName(column);
+      precisions[i] = metaData.getPrecision(column);
+      scales[i] = metaData.getScale(column);
+      displaySizes[i] = metaData.getColumnDisplaySize(column);
+      nullables[i] = metaData.isNullable(column);
+      signed[i] = metaData.isSigned(column);
+    }
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  @Override
+  public boolean isAutoIncrement(int column) {
+    return false;
+  }
+
+  @Override
+  public boolean isCaseSensitive(int column) {
+    return false;
+  }
+
+  @Override
+  public boolean isSearchable(int column) {
+    return false;
+  }
+
+  @Override
+  public boolean isCurrency(int column) {
+    return false;
+  }
+
+  @Override
+  public int isNullable(int column) {
+    return nullables[column - 1];
+  }
+
+  @Override
+  public boolean isSigned(int column) {
+    return signed[column - 1];
+  }
+
+  @Override
+  public int getColumnDisplaySize(int column) {
+    return displaySizes[column - 1];
+  }
+
+  @Override
+  public String getColumnLabel(int column) {
+    return columnLabels[column - 1];
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return columnNames[column - 1];
+  }
+
+  @Override
+  public String getSchemaName(int column) {
+    return schemaNames[column - 1];
+  }
+
+  @Override
+  public int getPrecision(int column) {
+    return precisions[column - 1];
+  }
+
+  @Override
+  public int getScale(int column) {
+    return scales[column - 1];
+  }
+
+  @Override
+  public String getTableName(int column) {
+    return tableNames[column - 1];
+  }
+
+  @Override
+  public String getCatalogName(int column) {
+    return catalogNames[column - 1];
+  }
+
+  @Override
+  public int getColumnType(int column) {
+    return columnTypes[column - 1];
+  }
+
+  @Override
+  public String getColumnTypeName(int column) {
+    return columnTypeNames[column - 1];
+  }
+
+  @Override
+  public boolean isReadOnly(int column) {
+    return true;
+  }
+
+  @Override
+  public boolean isWritable(int column) {
+    return false;
+  }
+
+  @Override
+  public boolean isDefinitelyWritable(int column) {
+    return false;
+  }
+
+  @Override
+  public String getColumnClassName(int column) {
+    return columnClassNames[column - 1];
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException("not a wrapper for " + iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return iface.isInstance(this);
+  }
+}
@@ -0,0 +1,83 @@
+package de.tuda.progressive.db.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded map which evicts the least recently used entry once the capacity is exceeded.
+ */
+public class LruCache<K, V> {
+
+  private final Map<K, V> entries;
+
+  private final BiConsumer<K, V> evicted;
+
+  public LruCache(int capacity) {
+    this(capacity, (key, value) -> {});
+  }
+
+  /**
+   * @param evicted called for entries which are evicted, replaced or cleared, e.g. to release their
+   *     resources
+   */
+  public LruCache(int capacity, BiConsumer<K, V> evicted) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+
+    this.evicted = evicted;
+    this.entries =
+        new LinkedHashMap<K, V>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > capacity) {
+              evicted.accept(eldest.getKey(), eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * @return the cached value or null if the key is not cached
+   */
+  public synchronized V get(K key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Adds the entry, a replaced value is handled like an evicted one.
+   */
+  public synchronized void put(K key, V value) {
+    final V previous = entries.put(key, value);
+    if (previous != null && previous != value) {
+      evicted.accept(key, previous);
+    }
+  }
+
+  /**
+   * Removes the entry without calling the eviction callback.
+   *
+   * @return the removed value or null if the key is not cached
+   */
+  public synchronized V remove(K key) {
+    return entries.remove(key);
+  }
+
+  public void clear() {
+    final List<Map.Entry<K, V>> cleared;
+    synchronized (this) {
+      cleared = new ArrayList<>(entries.entrySet());
+      entries.clear();
+    }
+    cleared.forEach(entry -> evicted.accept(entry.getKey(), entry.getValue()));
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+}
@@ -3,9 +3,12 @@ package de.tuda.progressive.db.util;
 import de.tuda.progressive.db.statement.context.MetaField;
 
 import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 
 public class MetaFieldUtils {
 
+  public static final double DEFAULT_CONFIDENCE = 0.95;
+
   private MetaFieldUtils() {}
 
   public static boolean isIndex(MetaField metaField, boolean hasAggregation) {
@@ -50,4 +53,38 @@ public class MetaFieldUtils {
     }
     return false;
   }
+
+  /**
+   * Number of columns the meta field occupies in the select of the source.
+   */
+  public static int getSourceColumnCount(MetaField metaField) {
+    switch (metaField) {
+      case AVG:
+        return 2;
+      case PARTITION:
+      case PROGRESS:
+        return 0;
+      default:
+        return 1;
+    }
+  }
+
+  public static double getConfidenceInterval(Pair<Integer, Integer> bound, double count) {
+    return getConfidenceInterval(bound, count, DEFAULT_CONFIDENCE);
+  }
+
+  public static double getConfidenceInterval(
+      Pair<Integer, Integer> bound, double count, double confidence) {
+    return ((double) (bound.getRight() - bound.getLeft()))
+        * Math.sqrt(1.0 / (2.0 * count) * Math.log(2.0 / (1.0 - confidence)));
+  }
+
+  /**
+   * Converts an interval of the default confidence into the interval of the given confidence.
+   */
+  public static double scaleConfidenceInterval(double interval, double confidence) {
+    final double factor = Math.log(2.0 / (1.0 - confidence));
+    final double defaultFactor = Math.log(2.0 / (1.0 - DEFAULT_CONFIDENCE));
+    return interval * Math.sqrt(factor / defaultFactor);
+  }
 }
@@ -0,0 +1,8 @@
+package de.tuda.progressive.db.util;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlSupplier<T> {
+	T get() throws SQLException;
+}
@@ -22,6 +22,7 @@ import org.apache.calcite.sql.type.SqlTypeName;
 import org.apache.calcite.sql.type.SqlTypeUtil;
 import org.apache.calcite.util.Litmus;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -42,12 +43,20 @@ public class SqlUtils {
   public static SqlCreateTable createTable(DbDriver driver, List<ColumnMeta> columnMetas,
       String cacheTableName,
       SqlNode... additionalColumns) {
+    return createTable(
+        driver, columnMetas, new SqlIdentifier(cacheTableName, SqlParserPos.ZERO),
+        additionalColumns);
+  }
+
+  public static SqlCreateTable createTable(DbDriver driver, List<ColumnMeta> columnMetas,
+      SqlIdentifier cacheTable,
+      SqlNode... additionalColumns) {
     final SqlNodeList columns = new SqlNodeList(SqlParserPos.ZERO);
     for (ColumnMeta meta : columnMetas) {
       columns.add(getColumnOfType(driver, meta.getName(), meta.getSqlType(), meta.getPrecision(),
           meta.getScale()));
     }
-    return createTable(columns, cacheTableName, additionalColumns);
+    return createTable(columns, cacheTable, additionalColumns);
   }
 
   public static SqlCreateTable createTable(
@@ -76,6 +85,12 @@ public class SqlUtils {
 
   public static SqlCreateTable createTable(SqlNodeList columns, String cacheTableName,
       SqlNode... additionalColumns) {
+    return createTable(
+        columns, new SqlIdentifier(cacheTableName, SqlParserPos.ZERO), additionalColumns);
+  }
+
+  public static SqlCreateTable createTable(SqlNodeList columns, SqlIdentifier cacheTable,
+      SqlNode... additionalColumns) {
     for (SqlNode column : additionalColumns) {
       columns.add(column);
     }
@@ -84,7 +99,7 @@ public class SqlUtils {
         SqlParserPos.ZERO,
         false,
         false,
-        new SqlIdentifier(cacheTableName, SqlParserPos.ZERO),
+        cacheTable,
         columns,
         null);
   }
@@ -115,6 +130,13 @@ public class SqlUtils {
       case Types.BIGINT:
         sqlType = SqlTypeName.BIGINT;
         break;
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        sqlType = SqlTypeName.DOUBLE;
+        break;
+      case Types.REAL:
+        sqlType = SqlTypeName.REAL;
+        break;
       case Types.VARCHAR:
         sqlType = SqlTypeName.VARCHAR;
         break;
@@ -162,6 +184,17 @@ public class SqlUtils {
     }
   }
 
+  /**
+   * @return false if statements of the connection have to be executed one by one, e.g. by DuckDB
+   */
+  public static boolean supportsBatchUpdates(Connection connection) {
+    try {
+      return connection.getMetaData().supportsBatchUpdates();
+    } catch (SQLException e) {
+      throw new ProgressiveException(e);
+    }
+  }
+
   public static <T> Consumer<T> consumer(SqlConsumer<T> consumer) {
     return value -> {
       try {
@@ -11,7 +11,10 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.Arrays;
 import java.util.List;
@@ -59,7 +62,12 @@ class JdbcDataBufferTest {
   }
 
   private void test(JdbcSelectContext context, List<List<Object[]>> expected) throws SQLException {
-    final JdbcDataBuffer buffer = new JdbcDataBuffer(driver, connection, context);
+    test(context, expected, JdbcDataBuffer.DEFAULT_BATCH_SIZE);
+  }
+
+  private void test(JdbcSelectContext context, List<List<Object[]>> expected, int batchSize)
+      throws SQLException {
+    final JdbcDataBuffer buffer = new JdbcDataBuffer(driver, connection, context, batchSize);
 
     try (Statement statement = connection.createStatement()) {
       try (ResultSet result = statement.executeQuery(driver.toSql(context.getSelectSource()))) {
@@ -111,6 +119,21 @@ class JdbcDataBufferTest {
             Arrays.asList(new Object[] {6.0, 8.0, "a", "a"}, new Object[] {10.0, 12.0, "b", "b"})));
   }
 
+  @Test
+  void testSumBatch() throws Throwable {
+    final JdbcSelectContext context =
+        builder()
+            .metaFields(Arrays.asList(MetaField.SUM, MetaField.SUM, MetaField.NONE, MetaField.NONE))
+            .selectBuffer(parse("select cast(a as float) / ?, cast(b as float) / ?, c, d from b"))
+            .build();
+
+    test(
+        context,
+        Arrays.asList(
+            Arrays.asList(new Object[] {6.0, 8.0, "a", "a"}, new Object[] {10.0, 12.0, "b", "b"})),
+        3);
+  }
+
   @Test
   void testCount() throws Throwable {
     final JdbcSelectContext context =
@@ -241,6 +264,93 @@ class JdbcDataBufferTest {
             Arrays.asList(new Object[] {1, 1, 1.0, 1.0, "a"}, new Object[] {1, 1, 1.0, 1.0, "b"})));
   }
 
+  /**
+   * Reports the merge times of a partition with 50k groups into a file backed buffer, with and
+   * without batches. Runs with -Dbenchmark=true only, unbatched merges take several seconds:
+   * {@code mvn test -Dtest=JdbcDataBufferTest#testMergeTimes -Dbenchmark=true}
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void testMergeTimes() throws Throwable {
+    final int groups = 50000;
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists g");
+      statement.execute("create table g (a integer, b integer, c varchar(100), d varchar(100))");
+    }
+    connection.setAutoCommit(false);
+    try (PreparedStatement insert =
+        connection.prepareStatement("insert into g values (1, 1, ?, ?)")) {
+      for (int i = 0; i < groups; i++) {
+        insert.setString(1, "c" + i);
+        insert.setString(2, "d" + i);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+      connection.commit();
+    } finally {
+      connection.setAutoCommit(true);
+    }
+
+    final JdbcSelectContext context =
+        new JdbcSelectContext.Builder()
+            .selectSource(parse("select a, b, c, d from g"))
+            .createBuffer(Utils.createTable("b", 4, 2))
+            .insertBuffer(Utils.createUpsert("b", 4, 2))
+            .metaFields(Arrays.asList(MetaField.SUM, MetaField.SUM, MetaField.NONE, MetaField.NONE))
+            .selectBuffer(parse("select cast(a as float) / ?, cast(b as float) / ?, c, d from b"))
+            .build();
+
+    // batch size 0 merges row by row in auto commit mode, as the buffer did before the batches
+    for (int batchSize : new int[] {0, 1, JdbcDataBuffer.DEFAULT_BATCH_SIZE}) {
+      for (int run = 0; run < 3; run++) {
+        final Path file = Files.createTempFile("buffer", ".sqlite");
+        final Connection bufferConnection = DriverManager.getConnection("jdbc:sqlite:" + file);
+        try (JdbcDataBuffer buffer =
+            new JdbcDataBuffer(
+                driver,
+                bufferConnection,
+                context,
+                batchSize > 0 ? batchSize : JdbcDataBuffer.DEFAULT_BATCH_SIZE)) {
+          // the second partition updates the groups of the first one
+          for (int partition = 0; partition < 2; partition++) {
+            final String sql = driver.toSql(context.getSelectSource());
+            try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(sql)) {
+              final long start = System.nanoTime();
+              if (batchSize > 0) {
+                buffer.add(result);
+              } else {
+                addRowByRow(bufferConnection, context, result);
+              }
+              System.out.printf(
+                  "batch size %d, run %d, partition %d: %d ms%n",
+                  batchSize, run, partition, (System.nanoTime() - start) / 1000000);
+            }
+          }
+
+          assertEquals(groups, buffer.get(1, 1.0).size());
+        } finally {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private void addRowByRow(Connection connection, JdbcSelectContext context, ResultSet result)
+      throws SQLException {
+    final int count = result.getMetaData().getColumnCount();
+    try (PreparedStatement insert =
+        connection.prepareStatement(driver.toSql(context.getInsertBuffer()))) {
+      while (result.next()) {
+        for (int i = 1; i <= count; i++) {
+          insert.setObject(i, result.getObject(i));
+          insert.setObject(i + count, result.getObject(i));
+        }
+        insert.executeUpdate();
+      }
+    }
+  }
+
   void test() throws Throwable {
     final JdbcSelectContext context =
         builder()
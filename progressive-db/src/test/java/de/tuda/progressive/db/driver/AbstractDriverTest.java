@@ -59,6 +59,14 @@ public abstract class AbstractDriverTest<
 
   protected abstract B getDriver();
 
+  protected void addForeignKey(Statement statement, String table, String column, String foreignTable)
+      throws SQLException {
+    statement.execute(
+        String.format(
+            "alter table %s add foreign key (%s) references %s(%s)",
+            table, column, foreignTable, column));
+  }
+
   private void assertColumn(
       MetaData metaData, String tableName, String columnName, Column expected) {
     final Column column = metaData.getColumn(tableName, columnName);
@@ -102,11 +110,7 @@ public abstract class AbstractDriverTest<
         }
       }
 
-      final String sqlAlterTable =
-          String.format(
-              "alter table %s add foreign key (%s) references %s(%s)",
-              TABLE_NAME, JOIN_COLUMN_NAME, table, JOIN_COLUMN_NAME);
-      statement.execute(sqlAlterTable);
+      addForeignKey(statement, TABLE_NAME, String.valueOf(JOIN_COLUMN_NAME), table);
 
       return table;
     } catch (SQLException e) {
@@ -121,7 +125,7 @@ public abstract class AbstractDriverTest<
   }
 
   void testPrepare(AbstractDriver.Builder<D, B> builder, int partitionSize, int joinTables) {
-    final DbDriver driver = builder.partitionSize(partitionSize).build();
+    final DbDriver driver = builder.partitionSize(partitionSize).dimensionSize(-1).build();
     final List<String> foreignTables = createForeignTables(joinTables);
 
     final MetaData metaData = new MemoryMetaData();
@@ -148,9 +152,25 @@ public abstract class AbstractDriverTest<
     }
 
     assertColumn(metaData, table, column, new Column(table, column, 1, 3));
+    assertEquals(partitionCount, metaData.getPartitionColumns(table, column).size());
     assertColumn(metaData, table, String.valueOf(JOIN_COLUMN_NAME), null);
   }
 
+  @Test
+  void testPrepareDimension() {
+    final DbDriver driver = getDriver().partitionSize(1).dimensionSize(ENTRY_COUNT).build();
+    final String foreignTable = createForeignTable(0);
+
+    final MetaData metaData = new MemoryMetaData();
+    driver.prepareTable(connection, TABLE_NAME, metaData);
+
+    assertEquals(ENTRY_COUNT, metaData.getPartitions(TABLE_NAME).size());
+
+    final List<Partition> partitions = metaData.getPartitions(foreignTable);
+    assertEquals(1, partitions.size());
+    assertEquals(ENTRY_COUNT, partitions.get(0).getEntries());
+  }
+
   @Test
   void testGetCount() {
     final AbstractDriver driver = getDriver().build();
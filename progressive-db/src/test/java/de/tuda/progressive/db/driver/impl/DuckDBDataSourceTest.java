@@ -0,0 +1,41 @@
+package de.tuda.progressive.db.driver.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+
+class DuckDBDataSourceTest {
+
+  @Test
+  void testAccepts() {
+    assertTrue(DuckDBDataSource.accepts("jdbc:duckdb:"));
+    assertTrue(DuckDBDataSource.accepts("jdbc:duckdb:/tmp/source.db"));
+    assertFalse(DuckDBDataSource.accepts("jdbc:sqlite::memory:"));
+  }
+
+  @Test
+  void testSharedInstance() throws Exception {
+    try (DuckDBDataSource dataSource = new DuckDBDataSource()) {
+      dataSource.setUrl("jdbc:duckdb:");
+
+      try (Connection first = dataSource.getConnection();
+          Connection second = dataSource.getConnection()) {
+        try (Statement statement = first.createStatement()) {
+          statement.execute("create table t (a integer)");
+          statement.execute("insert into t values (1), (2)");
+        }
+
+        try (Statement statement = second.createStatement();
+            ResultSet result = statement.executeQuery("select count(*) from t")) {
+          assertTrue(result.next());
+          assertEquals(2, result.getInt(1));
+        }
+      }
+    }
+  }
+}
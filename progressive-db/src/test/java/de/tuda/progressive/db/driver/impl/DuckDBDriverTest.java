@@ -0,0 +1,53 @@
+package de.tuda.progressive.db.driver.impl;
+
+import de.tuda.progressive.db.driver.PartitionDriver;
+import de.tuda.progressive.db.driver.PartitionDriverTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+class DuckDBDriverTest extends PartitionDriverTest {
+  private static final String URL = "jdbc:duckdb:";
+
+  private final List<String> foreignKeys = new ArrayList<>();
+
+  @BeforeAll
+  static void init() throws SQLException {
+    connection = DriverManager.getConnection(URL);
+  }
+
+  @BeforeEach
+  void clearForeignKeys() {
+    foreignKeys.clear();
+  }
+
+  @Override
+  protected PartitionDriver.Builder getDriver() {
+    return new DuckDBDriver.Builder().hasPartitions(false);
+  }
+
+  /**
+   * Foreign keys can only be declared by create table, so the table is created again.
+   */
+  @Override
+  protected void addForeignKey(
+      Statement statement, String table, String column, String foreignTable)
+      throws SQLException {
+    foreignKeys.add(
+        String.format(", foreign key (%s) references %s(%s)", column, foreignTable, column));
+
+    statement.execute(String.format("create table %1$s_copy as select * from %1$s", table));
+    statement.execute(String.format("drop table %s", table));
+    statement.execute(
+        String.format(
+            "create table %s (a integer, %s varchar(100)%s)",
+            table, column, String.join("", foreignKeys)));
+    statement.execute(String.format("insert into %1$s select * from %1$s_copy", table));
+    statement.execute(String.format("drop table %s_copy", table));
+  }
+}
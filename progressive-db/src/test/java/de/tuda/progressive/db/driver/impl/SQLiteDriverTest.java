@@ -1,13 +1,27 @@
 package de.tuda.progressive.db.driver.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import de.tuda.progressive.db.driver.AbstractDriver;
 import de.tuda.progressive.db.driver.AbstractDriverTest;
-import de.tuda.progressive.db.exception.ProgressiveException;
+import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.meta.MemoryMetaData;
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeAll;
 
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
 
 class SQLiteDriverTest extends AbstractDriverTest {
 //  private static final String URL = "jdbc:sqlite::memory:";
@@ -26,4 +40,68 @@ class SQLiteDriverTest extends AbstractDriverTest {
   protected AbstractDriver.Builder getDriver() {
     return new SQLiteDriver.Builder();
   }
+
+  @Test
+  void testPrepareFloatBounds() throws Exception {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("drop table if exists g");
+      statement.execute("create table g (x real)");
+      statement.execute("insert into g values (0.2), (0.9)");
+    }
+
+    final DbDriver driver = new SQLiteDriver.Builder().partitionSize(2).build();
+    final MetaData metaData = new MemoryMetaData();
+    driver.prepareTable(connection, "g", metaData);
+
+    final List<PartitionColumn> columns = metaData.getPartitionColumns("g", "x");
+    assertEquals(1, columns.size());
+    assertEquals(0, columns.get(0).getMin());
+    assertEquals(1, columns.get(0).getMax());
+  }
+
+  @Test
+  void testPreparePartitionDirectory() throws Exception {
+    final File directory = Files.createTempDirectory("partitions").toFile();
+    try {
+      final DbDriver driver =
+          new SQLiteDriver.Builder()
+              .partitionDirectory(directory.getPath())
+              .partitionSize(2)
+              .build();
+
+      final MetaData metaData = new MemoryMetaData();
+      driver.prepareTable(connection, "f", metaData);
+
+      final List<Partition> partitions = metaData.getPartitions("f");
+      assertEquals(2, partitions.size());
+      assertEquals(2, metaData.getPartitionColumns("f", "a").size());
+
+      final List<String> tables =
+          partitions.stream().map(Partition::getTableName).collect(Collectors.toList());
+      tables.forEach(table -> assertTrue(new File(directory, table + ".db").exists()));
+
+      try (Statement statement = connection.createStatement()) {
+        final String sql =
+            String.format("select count(*) from %s, %s", tables.get(0), tables.get(1));
+
+        driver.openPartitions(connection, tables);
+        try (ResultSet result = statement.executeQuery(sql)) {
+          assertTrue(result.next());
+          assertEquals(2, result.getInt(1));
+        } finally {
+          driver.closePartitions(connection, tables);
+        }
+
+        assertThrows(SQLException.class, () -> statement.executeQuery(sql));
+      }
+    } finally {
+      final File[] files = directory.listFiles();
+      if (files != null) {
+        for (File file : files) {
+          file.delete();
+        }
+      }
+      directory.delete();
+    }
+  }
 }
@@ -0,0 +1,83 @@
+package de.tuda.progressive.db.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryLogTest {
+
+  private static final SqlTemplate SQL = new SqlTemplate("select a\nfrom t where _partition = ?");
+
+  private Path dir;
+
+  private File file;
+
+  @BeforeEach
+  void beforeEach() throws Exception {
+    dir = Files.createTempDirectory("query-log");
+    file = dir.resolve("query.log").toFile();
+  }
+
+  @AfterEach
+  void afterEach() {
+    final File[] files = dir.toFile().listFiles();
+    if (files != null) {
+      for (File f : files) {
+        f.delete();
+      }
+    }
+    dir.toFile().delete();
+  }
+
+  private QueryLogRecord createRecord(int partition) {
+    return new QueryLogRecord(1, partition, SQL, new int[] {partition}, 1000000, 10);
+  }
+
+  @Test
+  void testRender() {
+    assertEquals("select a from t where _partition = 3", SQL.render(new int[] {3}));
+  }
+
+  @Test
+  void testWrite() throws Exception {
+    try (QueryLog log = new QueryLog(file, 16, 0, 0, 1)) {
+      log.log(createRecord(0));
+      log.log(createRecord(1));
+    }
+
+    final List<String> lines = Files.readAllLines(file.toPath());
+    assertEquals(2, lines.size());
+    assertTrue(
+        lines
+            .get(1)
+            .endsWith("query=1 partition=1 latency=1ms entries=10 sql=" + SQL.render(new int[] {1})));
+  }
+
+  @Test
+  void testRotate() throws Exception {
+    try (QueryLog log = new QueryLog(file, 16, 1, 0, 2)) {
+      for (int i = 0; i < 3; i++) {
+        log.log(createRecord(i));
+        while (!read(1).contains("partition=" + i)) {
+          Thread.sleep(1);
+        }
+      }
+    }
+
+    assertTrue(read(2).contains("partition=1"));
+    assertFalse(new File(file.getPath() + ".3").exists());
+  }
+
+  private String read(int index) throws Exception {
+    final File rotated = new File(file.getPath() + "." + index);
+    return rotated.exists() ? new String(Files.readAllBytes(rotated.toPath())) : "";
+  }
+}
@@ -0,0 +1,76 @@
+package de.tuda.progressive.db.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class RingBufferTest {
+
+  @Test
+  void testOrder() {
+    final RingBuffer<Integer> buffer = new RingBuffer<>(4);
+    final List<Integer> result = new ArrayList<>();
+
+    assertTrue(buffer.offer(1));
+    assertTrue(buffer.offer(2));
+    assertEquals(2, buffer.drain(result::add));
+
+    assertTrue(buffer.offer(3));
+    assertEquals(1, buffer.drain(result::add));
+
+    assertEquals(Arrays.asList(1, 2, 3), result);
+  }
+
+  @Test
+  void testFull() {
+    final RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+    assertTrue(buffer.offer(1));
+    assertTrue(buffer.offer(2));
+    assertFalse(buffer.offer(3));
+
+    assertEquals(2, buffer.drain(element -> {}));
+    assertTrue(buffer.offer(3));
+  }
+
+  @Test
+  void testConcurrent() throws Exception {
+    final int producers = 4;
+    final int count = 10000;
+    final RingBuffer<Integer> buffer = new RingBuffer<>(64);
+    final List<Integer> result = new ArrayList<>();
+
+    final List<Thread> threads =
+        IntStream.range(0, producers)
+            .mapToObj(
+                p ->
+                    new Thread(
+                        () -> {
+                          for (int i = 0; i < count; i++) {
+                            while (!buffer.offer(p * count + i)) {
+                              Thread.yield();
+                            }
+                          }
+                        }))
+            .collect(Collectors.toList());
+    threads.forEach(Thread::start);
+
+    while (result.size() < producers * count) {
+      buffer.drain(result::add);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(
+        IntStream.range(0, producers * count).boxed().collect(Collectors.toList()),
+        result.stream().sorted().collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,84 @@
+package de.tuda.progressive.db.meta;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import de.tuda.progressive.db.model.Column;
+import de.tuda.progressive.db.model.Partition;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingMetaDataTest {
+
+  private static final String TABLE = "test";
+
+  private CachingMetaData metaData;
+
+  @BeforeEach
+  void beforeEach() {
+    metaData = new CachingMetaData(new MemoryMetaData());
+  }
+
+  private Partition createPartition(int id) {
+    return new Partition(TABLE, TABLE + "_" + id, id, 10, true);
+  }
+
+  private Column createColumn(String name, long min, long max) {
+    final Column column = new Column();
+    column.setTable(TABLE);
+    column.setName(name);
+    column.setMin(min);
+    column.setMax(max);
+    return column;
+  }
+
+  @Test
+  void testHits() {
+    metaData.add(
+        Collections.singletonList(createPartition(0)),
+        Collections.singletonList(createColumn("a", 1, 2)));
+
+    final List<Partition> partitions = metaData.getPartitions(TABLE);
+    assertSame(partitions, metaData.getPartitions(TABLE));
+    assertEquals(2, metaData.getColumn(TABLE, "a").getMax());
+    assertEquals(2, metaData.getColumn(TABLE, "a").getMax());
+
+    assertEquals(2, metaData.getHits());
+    assertEquals(2, metaData.getMisses());
+    assertEquals(0.5, metaData.getHitRate());
+  }
+
+  @Test
+  void testMissingColumn() {
+    assertNull(metaData.getColumn(TABLE, "a"));
+    assertNull(metaData.getColumn(TABLE, "a"));
+
+    assertEquals(1, metaData.getHits());
+    assertEquals(1, metaData.getMisses());
+  }
+
+  @Test
+  void testInvalidateOnAdd() {
+    metaData.add(Collections.emptyList(), Collections.singletonList(createColumn("a", 1, 2)));
+    assertEquals(2, metaData.getColumn(TABLE, "a").getMax());
+    assertNull(metaData.getColumn(TABLE, "b"));
+
+    metaData.add(Collections.emptyList(), Collections.singletonList(createColumn("b", 3, 4)));
+    assertEquals(4, metaData.getColumn(TABLE, "b").getMax());
+    assertEquals(0, metaData.getHits());
+  }
+
+  @Test
+  void testInvalidate() {
+    metaData.add(Collections.singletonList(createPartition(0)), Collections.emptyList());
+    assertEquals(1, metaData.getPartitions(TABLE).size());
+
+    metaData.invalidate(TABLE);
+    assertEquals(1, metaData.getPartitions(TABLE).size());
+    assertEquals(0, metaData.getHits());
+    assertEquals(2, metaData.getMisses());
+  }
+}
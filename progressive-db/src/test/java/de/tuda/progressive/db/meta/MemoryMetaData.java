@@ -2,12 +2,14 @@ package de.tuda.progressive.db.meta;
 
 import de.tuda.progressive.db.model.Column;
 import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class MemoryMetaData implements MetaData {
 
@@ -15,10 +17,13 @@ public class MemoryMetaData implements MetaData {
 
 	private Map<String, Map<String, Column>> columns = new HashMap<>();
 
+	private List<PartitionColumn> partitionColumns = new ArrayList<>();
+
 	@Override
-	public void add(List<Partition> partitions, List<Column> columns) {
+	public void add(List<Partition> partitions, List<Column> columns, List<PartitionColumn> partitionColumns) {
 		addPartitions(partitions);
 		addColumns(columns);
+		this.partitionColumns.addAll(partitionColumns);
 	}
 
 	private void addPartitions(List<Partition> newPartitions) {
@@ -40,6 +45,13 @@ public class MemoryMetaData implements MetaData {
 		return partitions.get(table);
 	}
 
+	@Override
+	public List<PartitionColumn> getPartitionColumns(String table, String column) {
+		return partitionColumns.stream()
+				.filter(c -> c.getTable().equals(table) && c.getName().equals(column))
+				.collect(Collectors.toList());
+	}
+
 	@Override
 	public Column getColumn(String table, String column) {
 		return columns.getOrDefault(table, Collections.emptyMap()).get(column);
@@ -122,4 +122,62 @@ class SqlSelectProgressiveTest {
         SqlNodeList.of(createEquals("a", "1")),
         SqlNodeList.of(SqlUtils.getIdentifier("a")));
   }
+
+  @Test
+  void testWithDelta() throws Exception {
+    final SqlNode node =
+        SqlParser.create("select progressive a, avg(b) from t group by a with delta", config)
+            .parseQuery();
+
+    assertTrue(((SqlSelectProgressive) node).isWithDelta());
+  }
+
+  @Test
+  void testWithoutDelta() throws Exception {
+    final SqlNode node =
+        SqlParser.create("select progressive a, avg(b) from t group by a", config).parseQuery();
+
+    assertFalse(((SqlSelectProgressive) node).isWithDelta());
+  }
+
+  @Test
+  void testWithError() throws Exception {
+    final SqlNode node =
+        SqlParser.create(
+                "select progressive a, progressive_confidence(b) from t group by a"
+                    + " with error 0.01 confidence 0.95",
+                config)
+            .parseQuery();
+
+    final SqlSelectProgressive select = (SqlSelectProgressive) node;
+    assertEquals(0.01, select.getWithError().bigDecimalValue().doubleValue());
+    assertEquals(0.95, select.getWithConfidence().bigDecimalValue().doubleValue());
+  }
+
+  @Test
+  void testWithoutError() throws Exception {
+    final SqlNode node =
+        SqlParser.create("select progressive a, avg(b) from t group by a with delta", config)
+            .parseQuery();
+
+    assertNull(((SqlSelectProgressive) node).getWithError());
+  }
+
+  @Test
+  void testClone() throws Exception {
+    final SqlNode node =
+        SqlParser.create(
+                "select progressive a, avg(b) from t where c = 1 group by a with delta", config)
+            .parseQuery();
+
+    final SqlSelectProgressive select = (SqlSelectProgressive) node;
+    final SqlSelectProgressive clone = select.clone(select.getParserPosition());
+    clone.setOrderBy(new SqlNodeList(select.getSelectList().getList(), SqlParserPos.ZERO));
+
+    assertNotSame(select, clone);
+    assertTrue(clone.isWithDelta());
+    assertTrue(select.getWhere().equalsDeep(clone.getWhere(), Litmus.THROW));
+    assertNull(select.getOrderList());
+    assertNotNull(clone.getOrderList());
+  }
 }
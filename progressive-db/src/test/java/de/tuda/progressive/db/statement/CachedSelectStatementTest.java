@@ -0,0 +1,63 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CachedSelectStatementTest {
+
+  private final ResultCache.Result result =
+      new ResultCache.Result(Collections.singletonList(new Object[] {1, 2}), null, 4, 1.0);
+
+  @Test
+  void testResultSet() throws Exception {
+    final CachedSelectStatement statement = new CachedSelectStatement(result);
+    statement.run();
+    assertFalse(statement.isDone());
+
+    final ResultSet resultSet = statement.getResultSet();
+    assertTrue(resultSet.next());
+    assertEquals(2, resultSet.getInt(2));
+    assertFalse(resultSet.next());
+
+    assertTrue(statement.isDone());
+    assertFalse(statement.getResultSet().next());
+  }
+
+  @Test
+  void testListener() {
+    final List<Object> events = new ArrayList<>();
+    final CachedSelectStatement statement = new CachedSelectStatement(result);
+    statement.setListener(
+        new ResultListener() {
+          @Override
+          public void onResult(List<Object[]> rows, int partitions, double progress) {
+            events.add(rows.size());
+            events.add(partitions);
+          }
+
+          @Override
+          public void onDone() {
+            events.add("done");
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            events.add(t);
+          }
+        });
+    statement.run();
+
+    assertEquals(3, events.size());
+    assertEquals(1, events.get(0));
+    assertEquals(4, events.get(1));
+    assertEquals("done", events.get(2));
+    assertTrue(statement.isDone());
+  }
+}
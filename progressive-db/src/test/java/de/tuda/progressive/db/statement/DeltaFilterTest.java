@@ -0,0 +1,86 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.tuda.progressive.db.statement.context.MetaField;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DeltaFilterTest {
+
+  @Test
+  void testChangedGroups() {
+    final DeltaFilter filter =
+        new DeltaFilter(Arrays.asList(MetaField.PROGRESS, MetaField.AVG, MetaField.NONE));
+
+    final List<Object[]> first =
+        filter.filter(
+            Arrays.asList(new Object[] {0.5, 1.0, "a"}, new Object[] {0.5, 2.0, "b"}), 0.5);
+    assertEquals(2, first.size());
+
+    final List<Object[]> second =
+        filter.filter(
+            Arrays.asList(
+                new Object[] {1.0, 1.0, "a"},
+                new Object[] {1.0, 3.0, "b"},
+                new Object[] {1.0, 4.0, "c"}),
+            1.0);
+    assertEquals(2, second.size());
+    assertArrayEquals(new Object[] {1.0, 3.0, "b"}, second.get(0));
+    assertArrayEquals(new Object[] {1.0, 4.0, "c"}, second.get(1));
+  }
+
+  @Test
+  void testFutureColumns() {
+    final DeltaFilter filter =
+        new DeltaFilter(
+            Arrays.asList(
+                MetaField.SUM, MetaField.FUTURE_GROUP, MetaField.NONE, MetaField.FUTURE_WHERE));
+
+    assertEquals(1, filter.filter(Arrays.<Object[]>asList(new Object[] {1.0, "a"}), 1.0).size());
+    assertEquals(0, filter.filter(Arrays.<Object[]>asList(new Object[] {1.0, "a"}), 1.0).size());
+  }
+
+  @Test
+  void testScaledColumns() {
+    final DeltaFilter filter =
+        new DeltaFilter(Arrays.asList(MetaField.SUM, MetaField.COUNT, MetaField.NONE));
+
+    final List<Object[]> first =
+        filter.filter(
+            Arrays.asList(new Object[] {6.0, 3.0, "a"}, new Object[] {3.0, 3.0, "b"}), 1.0 / 3);
+    assertEquals(2, first.size());
+    assertRow(2.0, 1.0, "a", first.get(0));
+    assertRow(1.0, 1.0, "b", first.get(1));
+
+    // a stops receiving rows, so only its extrapolation changes
+    final List<Object[]> second =
+        filter.filter(
+            Arrays.asList(new Object[] {4.0, 2.0, "a"}, new Object[] {3.0, 2.0, "b"}), 0.5);
+    assertEquals(1, second.size());
+    assertRow(1.5, 1.0, "b", second.get(0));
+
+    final List<Object[]> third =
+        filter.filter(
+            Arrays.asList(new Object[] {2.0, 1.0, "a"}, new Object[] {1.5, 2.0, "b"}), 1.0);
+    assertEquals(1, third.size());
+    assertRow(1.5, 2.0, "b", third.get(0));
+  }
+
+  @Test
+  void testNoChangedGroups() {
+    final DeltaFilter filter = new DeltaFilter(Arrays.asList(MetaField.SUM, MetaField.NONE));
+
+    assertEquals(1, filter.filter(Arrays.<Object[]>asList(new Object[] {4.0, "a"}), 0.5).size());
+    assertTrue(filter.filter(Arrays.<Object[]>asList(new Object[] {2.0, "a"}), 1.0).isEmpty());
+  }
+
+  private void assertRow(double sum, double count, String key, Object[] row) {
+    assertEquals(sum, (Double) row[0], 1e-9);
+    assertEquals(count, (Double) row[1], 1e-9);
+    assertEquals(key, row[2]);
+  }
+}
@@ -0,0 +1,46 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.tuda.progressive.db.statement.context.MetaField;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ErrorBoundTest {
+
+  private final List<MetaField> metaFields =
+      Arrays.asList(MetaField.NONE, MetaField.FUTURE_GROUP, MetaField.CONFIDENCE_INTERVAL);
+
+  @Test
+  void testReached() {
+    final ErrorBound bound = new ErrorBound(metaFields, 0.1, 0.95);
+
+    assertFalse(bound.isReached(Collections.emptyList()));
+    assertTrue(
+        bound.isReached(Arrays.asList(new Object[] {"a", 0.05}, new Object[] {"b", 0.1})));
+    assertFalse(
+        bound.isReached(Arrays.asList(new Object[] {"a", 0.05}, new Object[] {"b", 0.2})));
+    assertFalse(bound.isReached(Collections.singletonList(new Object[] {"a", null})));
+  }
+
+  @Test
+  void testConfidence() {
+    final List<Object[]> rows = Collections.singletonList(new Object[] {"a", 0.1});
+
+    assertTrue(new ErrorBound(metaFields, 0.1, 0.9).isReached(rows));
+    assertFalse(new ErrorBound(metaFields, 0.1, 0.99).isReached(rows));
+  }
+
+  @Test
+  void testInvalid() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ErrorBound(Collections.singletonList(MetaField.AVG), 0.1, 0.95));
+    assertThrows(IllegalArgumentException.class, () -> new ErrorBound(metaFields, 0.1, 1.0));
+    assertThrows(IllegalArgumentException.class, () -> new ErrorBound(metaFields, 0.0, 0.95));
+  }
+}
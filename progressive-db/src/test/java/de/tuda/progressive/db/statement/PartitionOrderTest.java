@@ -0,0 +1,67 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import de.tuda.progressive.db.meta.MemoryMetaData;
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class PartitionOrderTest {
+
+  private static final String TABLE = "T";
+
+  private static final int COUNT = 16;
+
+  private final List<Partition> partitions =
+      IntStream.range(0, COUNT)
+          .mapToObj(i -> new Partition(TABLE, "t_" + i, i, 10, true))
+          .collect(Collectors.toList());
+
+  private List<Integer> getIds(List<Partition> partitions) {
+    return partitions.stream().map(Partition::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void testSequential() {
+    assertEquals(getIds(partitions), getIds(PartitionOrder.SEQUENTIAL.order(TABLE, partitions)));
+  }
+
+  @Test
+  void testRandom() {
+    final List<Integer> ids = getIds(new RandomPartitionOrder(1).order(TABLE, partitions));
+
+    assertEquals(ids, getIds(new RandomPartitionOrder(1).order(TABLE, partitions)));
+    assertNotEquals(getIds(partitions), ids);
+    assertEquals(new HashSet<>(getIds(partitions)), new HashSet<>(ids));
+  }
+
+  @Test
+  void testStratified() {
+    final MetaData metaData = new MemoryMetaData();
+    final List<PartitionColumn> bounds = new ArrayList<>();
+    // partition i holds the values of stratum i / 4
+    for (int i = 0; i < COUNT; i++) {
+      bounds.add(new PartitionColumn(TABLE, i, "A", i / 4 * 10, i / 4 * 10 + 9));
+    }
+    metaData.add(partitions, Collections.emptyList(), bounds);
+
+    final List<Integer> ids =
+        getIds(new StratifiedPartitionOrder(metaData, "A", 1).order(TABLE, partitions));
+    assertEquals(new HashSet<>(getIds(partitions)), new HashSet<>(ids));
+
+    // every stratum is read within the first four partitions
+    final Set<Integer> strata =
+        ids.subList(0, 4).stream().map(id -> id / 4).collect(Collectors.toSet());
+    assertEquals(4, strata.size());
+  }
+}
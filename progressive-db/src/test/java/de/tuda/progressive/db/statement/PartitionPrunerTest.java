@@ -0,0 +1,90 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.tuda.progressive.db.meta.MemoryMetaData;
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionColumn;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartitionPrunerTest {
+
+  private static final String TABLE = "T";
+
+  private MetaData metaData;
+
+  private List<Partition> partitions;
+
+  @BeforeEach
+  void beforeEach() {
+    metaData = new MemoryMetaData();
+    partitions =
+        Arrays.asList(
+            new Partition(TABLE, "t_0", 0, 10, true),
+            new Partition(TABLE, "t_1", 1, 10, true),
+            new Partition(TABLE, "t_2", 2, 10, true));
+
+    metaData.add(
+        partitions,
+        Collections.emptyList(),
+        Arrays.asList(
+            new PartitionColumn(TABLE, 0, "A", 1, 10),
+            new PartitionColumn(TABLE, 1, "A", 11, 20),
+            new PartitionColumn(TABLE, 2, "A", 21, 30)));
+  }
+
+  private void test(String where, Integer... expected) {
+    final SqlSelect select;
+    try {
+      select = (SqlSelect) SqlParser.create("select a from t where " + where).parseQuery();
+    } catch (SqlParseException e) {
+      throw new IllegalArgumentException(e);
+    }
+
+    final List<Integer> actual =
+        new PartitionPruner(metaData)
+            .prune(TABLE, partitions, select.getWhere()).stream()
+                .map(Partition::getId)
+                .collect(Collectors.toList());
+
+    assertEquals(Arrays.asList(expected), actual);
+  }
+
+  @Test
+  void testComparison() {
+    test("a = 15", 1);
+    test("a < 11", 0);
+    test("a <= 11", 0, 1);
+    test("a > 20", 2);
+    test("25 <= a", 2);
+  }
+
+  @Test
+  void testBetween() {
+    test("a between 5 and 15", 0, 1);
+    test("a not between 5 and 15", 0, 1, 2);
+  }
+
+  @Test
+  void testConjunction() {
+    test("a > 5 and a < 12", 0, 1);
+    test("a < 5 or a > 25", 0, 2);
+    test("t.a = 15 and b = 'x'", 1);
+  }
+
+  @Test
+  void testUnknown() {
+    test("b = 1", 0, 1, 2);
+    test("x.a = 1", 0, 1, 2);
+    test("a = b", 0, 1, 2);
+  }
+}
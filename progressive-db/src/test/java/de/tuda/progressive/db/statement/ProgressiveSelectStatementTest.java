@@ -0,0 +1,544 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.tuda.progressive.db.buffer.impl.MemoryDataBuffer;
+import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.driver.impl.SQLiteDriver;
+import de.tuda.progressive.db.metrics.Metrics;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.model.PartitionInfo;
+import de.tuda.progressive.db.statement.context.MetaField;
+import de.tuda.progressive.db.statement.context.impl.memory.MemoryContext;
+import de.tuda.progressive.db.util.SqlSupplier;
+import de.tuda.progressive.db.util.SqlUtils;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sqlite.Function;
+
+class ProgressiveSelectStatementTest {
+
+  private static final DbDriver driver = SQLiteDriver.INSTANCE;
+
+  /**
+   * SQLite with a partitions column, only those drivers stream their partitions.
+   */
+  private static final DbDriver partitionColumnDriver =
+      (DbDriver)
+          Proxy.newProxyInstance(
+              DbDriver.class.getClassLoader(),
+              new Class[] {DbDriver.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("hasPartitions")) {
+                  return true;
+                }
+                try {
+                  return method.invoke(SQLiteDriver.INSTANCE, args);
+                } catch (InvocationTargetException e) {
+                  throw e.getCause();
+                }
+              });
+
+  private static QueryScheduler scheduler;
+
+  private Connection connection;
+
+  @BeforeAll
+  static void beforeAll() {
+    scheduler = new QueryScheduler(2);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    scheduler.close();
+  }
+
+  @BeforeEach
+  void beforeEach() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+  }
+
+  @AfterEach
+  void afterEach() throws SQLException {
+    connection.close();
+  }
+
+  private SqlSelect parse(String sql) {
+    try {
+      return (SqlSelect) SqlParser.create(sql).parseQuery();
+    } catch (SqlParseException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private ProgressiveSelectStatement create(
+      String sql,
+      List<MetaField> metaFields,
+      Map<String, List<Partition>> partitions,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism) {
+    return create(sql, metaFields, partitions, connection, connectionSupplier, parallelism);
+  }
+
+  private ProgressiveSelectStatement create(
+      String sql,
+      List<MetaField> metaFields,
+      Map<String, List<Partition>> partitions,
+      Connection connection,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism) {
+    return create(
+        sql, metaFields, partitions, connection, connectionSupplier, parallelism, driver, 0);
+  }
+
+  private ProgressiveSelectStatement create(
+      String sql,
+      List<MetaField> metaFields,
+      Map<String, List<Partition>> partitions,
+      Connection connection,
+      SqlSupplier<Connection> connectionSupplier,
+      int parallelism,
+      DbDriver driver,
+      int fetchSize) {
+    final List<SqlIdentifier> sourceTables =
+        partitions.keySet().stream().map(SqlUtils::getIdentifier).collect(Collectors.toList());
+    final MemoryContext context =
+        new MemoryContext.Builder()
+            .metaFields(metaFields)
+            .selectSource(parse(sql))
+            .sourceTables(sourceTables)
+            .orderBy(Collections.singletonList(ImmutablePair.of(metaFields.size() - 1, false)))
+            .build();
+
+    return new ProgressiveSelectStatement(
+        driver,
+        connection,
+        context,
+        new MemoryDataBuffer(context),
+        new PartitionInfo(partitions.keySet().iterator().next(), partitions),
+        connectionSupplier,
+        parallelism,
+        fetchSize,
+        scheduler,
+        Metrics.NOOP,
+        false,
+        null);
+  }
+
+  private Listener run(ProgressiveSelectStatement statement) throws InterruptedException {
+    final Listener listener = new Listener();
+    statement.setListener(listener);
+    statement.run();
+
+    assertTrue(listener.done.await(10, TimeUnit.SECONDS));
+    statement.close();
+    return listener;
+  }
+
+  @Test
+  void testNoPartitions() throws Exception {
+    final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+    partitions.put("t", Collections.emptyList());
+
+    final ProgressiveSelectStatement statement =
+        create(
+            "select a, c from t",
+            Arrays.asList(MetaField.SUM, MetaField.NONE),
+            partitions,
+            null,
+            1);
+    final Listener listener = run(statement);
+
+    assertNull(listener.error);
+    assertEquals(1, listener.results.size());
+    assertTrue(listener.results.get(0).isEmpty());
+    assertEquals(1.0, listener.progress);
+    assertTrue(statement.isDone());
+  }
+
+  @Test
+  void testFailure() throws Exception {
+    // the partition tables do not exist
+    final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+    partitions.put("t", createPartitions("t", 4));
+
+    final ProgressiveSelectStatement statement =
+        create(
+            "select a, c from t",
+            Arrays.asList(MetaField.SUM, MetaField.NONE),
+            partitions,
+            () -> DriverManager.getConnection("jdbc:sqlite::memory:"),
+            2);
+    final Listener listener = run(statement);
+
+    assertNotNull(listener.error);
+    assertTrue(listener.results.isEmpty());
+    assertTrue(statement.isDone());
+    assertEquals(0, statement.getReadPartitions());
+    assertEquals(0.0, statement.getProgress());
+  }
+
+  @Test
+  void testJoinPartitionTables() throws Exception {
+    final Path file = Files.createTempFile("progressive", ".sqlite");
+    final String url = "jdbc:sqlite:" + file;
+    try {
+      // the readers of the other connections have to see the partition tables
+      connection.close();
+      connection = DriverManager.getConnection(url);
+
+      final List<List<String>> rows =
+          Arrays.asList(
+              Arrays.asList("1, 'x'", "2, 'y'"),
+              Collections.singletonList("3, 'x'"),
+              Collections.singletonList("4, 'y'"),
+              Collections.singletonList("5, 'x'"));
+      try (Statement statement = connection.createStatement()) {
+        for (int i = 0; i < rows.size(); i++) {
+          final String table = driver.getPartitionTable("f", i);
+          statement.execute(String.format("create table %s (a integer, b varchar(1))", table));
+          for (String row : rows.get(i)) {
+            statement.execute(String.format("insert into %s values (%s)", table, row));
+          }
+        }
+
+        final String table = driver.getPartitionTable("d", 0);
+        statement.execute(String.format("create table %s (b varchar(1), c integer)", table));
+        statement.execute(String.format("insert into %s values ('x', 1), ('y', 2)", table));
+      }
+
+      // the source tables are in the order of the from clause
+      final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+      partitions.put("f", createPartitions("f", rows.size()));
+      partitions.put("d", createPartitions("d", 1));
+
+      final ProgressiveSelectStatement statement =
+          create(
+              "select sum(f.a), d.c from f join d on f.b = d.b group by d.c",
+              Arrays.asList(MetaField.SUM, MetaField.NONE),
+              partitions,
+              () -> DriverManager.getConnection(url),
+              2);
+      final Listener listener = run(statement);
+
+      assertNull(listener.error);
+      assertEquals(1.0, listener.progress);
+      assertEquals(rows.size(), statement.getReadPartitions());
+
+      final List<Object[]> result = listener.results.get(listener.results.size() - 1);
+      assertEquals(2, result.size());
+      assertEquals(9, ((Number) result.get(0)[0]).intValue());
+      assertEquals(1, ((Number) result.get(0)[1]).intValue());
+      assertEquals(6, ((Number) result.get(1)[0]).intValue());
+      assertEquals(2, ((Number) result.get(1)[1]).intValue());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Creates partitions of t with the values 1 to count in column a, the pool has one connection.
+   */
+  private BasicDataSource createPool(Path file, int count) throws SQLException {
+    final BasicDataSource pool = new BasicDataSource();
+    pool.setUrl("jdbc:sqlite:" + file);
+    pool.setMaxTotal(1);
+    pool.setMaxWaitMillis(5000);
+
+    try (Connection connection = pool.getConnection();
+        Statement statement = connection.createStatement()) {
+      for (int i = 0; i < count; i++) {
+        final String table = driver.getPartitionTable("t", i);
+        statement.execute(String.format("create table %s (a integer, c integer)", table));
+        statement.execute(String.format("insert into %s values (%d, 1)", table, i + 1));
+      }
+    }
+    return pool;
+  }
+
+  private ProgressiveSelectStatement createSum(BasicDataSource pool, int count, int parallelism) {
+    final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+    partitions.put("t", createPartitions("t", count));
+
+    return create(
+        "select sum(a), c from t group by c",
+        Arrays.asList(MetaField.SUM, MetaField.NONE),
+        partitions,
+        null,
+        pool::getConnection,
+        parallelism);
+  }
+
+  /**
+   * @return first column of the first row of the latest result
+   */
+  private int getFirstValue(Listener listener) {
+    final List<Object[]> rows = listener.results.get(listener.results.size() - 1);
+    return ((Number) rows.get(0)[0]).intValue();
+  }
+
+  private void awaitIdle(BasicDataSource pool) throws InterruptedException {
+    final long end = System.currentTimeMillis() + 5000;
+    while (pool.getNumActive() > 0 && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, pool.getNumActive());
+  }
+
+  @Test
+  void testConnectionPerStep() throws Exception {
+    final Path file = Files.createTempFile("progressive", ".sqlite");
+    final BasicDataSource pool = createPool(file, 4);
+    try {
+      // both statements exist at once, but only hold the single connection during their steps
+      final List<ProgressiveSelectStatement> statements = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        statements.add(createSum(pool, 4, 2));
+      }
+
+      for (ProgressiveSelectStatement statement : statements) {
+        final Listener listener = run(statement);
+
+        assertNull(listener.error);
+        assertEquals(10, getFirstValue(listener));
+      }
+      assertEquals(0, pool.getNumActive());
+    } finally {
+      pool.close();
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void testParkedStatementsKeepNoConnection() throws Exception {
+    final Path file = Files.createTempFile("progressive", ".sqlite");
+    final BasicDataSource pool = createPool(file, 4);
+    try {
+      final List<ProgressiveSelectStatement> parked = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        final ProgressiveSelectStatement statement = createSum(pool, 4, 1);
+        final CountDownLatch released = new CountDownLatch(1);
+        statement.share(
+            () -> {},
+            s -> {
+              if (s.park()) {
+                parked.add(s);
+              }
+              released.countDown();
+            });
+
+        // the client leaves after the first partition
+        statement.setListener(
+            new Listener() {
+              @Override
+              public void onResult(List<Object[]> rows, int partitions, double progress) {
+                statement.close();
+              }
+            });
+        statement.run();
+        assertTrue(released.await(10, TimeUnit.SECONDS));
+      }
+      assertEquals(2, parked.size());
+      awaitIdle(pool);
+
+      // new queries get the single connection of the pool
+      final Listener listener = run(createSum(pool, 4, 1));
+      assertNull(listener.error);
+      assertEquals(10, getFirstValue(listener));
+
+      for (ProgressiveSelectStatement statement : parked) {
+        final Listener subscriber = new Listener();
+        statement.unpark(() -> {});
+        statement.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(10, getFirstValue(subscriber));
+        statement.dispose();
+      }
+      awaitIdle(pool);
+    } finally {
+      pool.close();
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void testStreamingReadersOverlap() throws Exception {
+    final Path file = Files.createTempFile("progressive", ".sqlite");
+    try {
+      final String url = "jdbc:sqlite:" + file;
+      try (Connection connection = DriverManager.getConnection(url);
+          Statement statement = connection.createStatement()) {
+        statement.execute("create table t (a integer, c integer, _partition integer)");
+        statement.execute("insert into t values (1, 1, 0), (1, 1, 0)");
+        for (int i = 0; i < 20; i++) {
+          statement.execute("insert into t values (1, 1, 1)");
+        }
+      }
+
+      // the second row of partition 0 is held back until all rows of partition 1 were read, which
+      // only happens if the other reader merges them meanwhile. the first row is already read by
+      // executing the query, partition 1 starts after partition 0 is held back.
+      final AtomicInteger firstRows = new AtomicInteger();
+      final AtomicInteger partitionRows = new AtomicInteger();
+      final CountDownLatch heldBack = new CountDownLatch(1);
+      final CountDownLatch partitionRead = new CountDownLatch(1);
+      final AtomicBoolean overlapped = new AtomicBoolean();
+      final SqlSupplier<Connection> connectionSupplier =
+          () -> {
+            final Connection connection = DriverManager.getConnection(url);
+            Function.create(
+                connection,
+                "probe",
+                new Function() {
+                  @Override
+                  protected void xFunc() throws SQLException {
+                    try {
+                      if (value_int(1) == 0) {
+                        if (firstRows.incrementAndGet() == 2) {
+                          heldBack.countDown();
+                          overlapped.set(partitionRead.await(5, TimeUnit.SECONDS));
+                        }
+                      } else {
+                        final int rows = partitionRows.incrementAndGet();
+                        if (rows == 1) {
+                          heldBack.await(5, TimeUnit.SECONDS);
+                        } else if (rows == 20) {
+                          partitionRead.countDown();
+                        }
+                      }
+                    } catch (InterruptedException e) {
+                      throw new SQLException(e);
+                    }
+                    result(value_int(0));
+                  }
+                });
+            return connection;
+          };
+
+      final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+      partitions.put("t", createPartitions("t", 2));
+
+      final Listener listener =
+          run(
+              create(
+                  "select probe(a, _partition), c from t where _partition = ?",
+                  Arrays.asList(MetaField.SUM, MetaField.NONE),
+                  partitions,
+                  null,
+                  connectionSupplier,
+                  2,
+                  partitionColumnDriver,
+                  2));
+
+      assertNull(listener.error);
+      assertTrue(overlapped.get());
+      assertEquals(22, getFirstValue(listener));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void testEmptyDelta() throws Exception {
+    final Map<String, List<Partition>> partitions = new LinkedHashMap<>();
+    partitions.put("t", createPartitions("t", 2));
+
+    final List<MetaField> metaFields = Arrays.asList(MetaField.SUM, MetaField.NONE);
+    final ProgressiveSelectStatement statement =
+        create("select a, c from t", metaFields, partitions, null, 1);
+    final SharedSelectStatement shared =
+        new SharedSelectStatement(statement, new DeltaFilter(metaFields));
+    try {
+      shared.onResult(Collections.singletonList(new Object[] {2.0, 1}), 1, 0.5);
+      try (ResultSet result = shared.getResultSet()) {
+        assertTrue(result.next());
+        assertEquals(1.0, result.getDouble(1));
+      }
+
+      // the group did not change, but the fetch still returns with the new progress
+      shared.onResult(Collections.singletonList(new Object[] {1.0, 1}), 2, 1.0);
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(5),
+          () -> {
+            try (ResultSet result = shared.getResultSet()) {
+              assertFalse(result.next());
+            }
+          });
+    } finally {
+      statement.close();
+    }
+  }
+
+  private List<Partition> createPartitions(String table, int count) {
+    final List<Partition> partitions = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      partitions.add(new Partition(table, driver.getPartitionTable(table, i), i, 1, true));
+    }
+    return partitions;
+  }
+
+  private static class Listener implements ResultListener {
+
+    private final List<List<Object[]>> results = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private volatile double progress;
+
+    private volatile Throwable error;
+
+    @Override
+    public void onResult(List<Object[]> rows, int partitions, double progress) {
+      results.add(rows);
+      this.progress = progress;
+    }
+
+    @Override
+    public void onDone() {
+      done.countDown();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      error = t;
+      done.countDown();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class QuerySchedulerTest {
+
+  @Test
+  void testFetchTimeOrder() throws Exception {
+    final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(3);
+
+    try (QueryScheduler scheduler = new QueryScheduler(1)) {
+      scheduler.schedule(
+          0,
+          () -> {
+            try {
+              blocked.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+
+      for (int fetchTime : new int[] {10, 5, 0}) {
+        scheduler.schedule(
+            fetchTime,
+            () -> {
+              order.add(fetchTime);
+              done.countDown();
+            });
+      }
+
+      blocked.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    assertEquals(Arrays.asList(0, 5, 10), order);
+  }
+
+  @Test
+  void testSequenceOrder() throws Exception {
+    final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(3);
+
+    try (QueryScheduler scheduler = new QueryScheduler(1)) {
+      scheduler.schedule(
+          0,
+          () -> {
+            try {
+              blocked.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+
+      for (int i = 0; i < 3; i++) {
+        final int step = i;
+        scheduler.schedule(
+            1,
+            () -> {
+              order.add(step);
+              done.countDown();
+            });
+      }
+
+      blocked.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    assertEquals(Arrays.asList(0, 1, 2), order);
+  }
+}
@@ -0,0 +1,160 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.tuda.progressive.db.buffer.impl.MemoryDataBufferFactory;
+import de.tuda.progressive.db.driver.DbDriver;
+import de.tuda.progressive.db.driver.impl.SQLiteDriver;
+import de.tuda.progressive.db.meta.MemoryMetaData;
+import de.tuda.progressive.db.meta.MetaData;
+import de.tuda.progressive.db.metrics.Metrics;
+import de.tuda.progressive.db.model.Partition;
+import de.tuda.progressive.db.sql.parser.SqlSelectProgressive;
+import de.tuda.progressive.db.statement.context.impl.memory.MemoryContextFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SimpleStatementFactoryTest {
+
+  private static final int CLIENTS = 8;
+
+  private static final String URL = "jdbc:sqlite:file:shared?mode=memory&cache=shared";
+
+  /**
+   * SQLite with a partitions column, only those drivers share their selects.
+   */
+  private static final DbDriver driver =
+      (DbDriver)
+          Proxy.newProxyInstance(
+              DbDriver.class.getClassLoader(),
+              new Class[] {DbDriver.class},
+              (proxy, method, args) -> {
+                if (method.getName().equals("hasPartitions")) {
+                  return true;
+                }
+                try {
+                  return method.invoke(SQLiteDriver.INSTANCE, args);
+                } catch (InvocationTargetException e) {
+                  throw e.getCause();
+                }
+              });
+
+  private Connection connection;
+
+  private QueryScheduler scheduler;
+
+  @BeforeEach
+  void beforeEach() throws SQLException {
+    connection = DriverManager.getConnection(URL);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("create table t_partition (a integer, b integer, _partition integer)");
+    }
+    scheduler = new QueryScheduler(1);
+  }
+
+  @AfterEach
+  void afterEach() throws SQLException {
+    scheduler.close();
+    connection.close();
+  }
+
+  @Test
+  void testConcurrentPrepare() throws Exception {
+    final MetaData metaData = new MemoryMetaData();
+    // unquoted identifiers are upper case
+    metaData.add(
+        Collections.singletonList(new Partition("T", "t_partition", 0, 1, true)),
+        Collections.emptyList());
+
+    final MemoryContextFactory contextFactory = new MemoryContextFactory(driver);
+    final SimpleStatementFactory factory =
+        new SimpleStatementFactory(
+            driver,
+            metaData,
+            contextFactory,
+            new MemoryDataBufferFactory(),
+            () -> DriverManager.getConnection(URL),
+            1,
+            0,
+            scheduler,
+            PartitionOrder.SEQUENTIAL,
+            Metrics.NOOP);
+
+    final SqlSelectProgressive select = parse("select sum(a), b from t group by b");
+    // caches the meta data of the source, the clients would use the connection concurrently
+    contextFactory.create(connection, select, metaData::getColumn);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    final CyclicBarrier barrier = new CyclicBarrier(CLIENTS);
+    final List<Future<ProgressiveStatement>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < CLIENTS; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  barrier.await();
+                  return factory.prepare(connection, select);
+                }));
+      }
+
+      int selects = 0;
+      int shared = 0;
+      final List<ProgressiveStatement> statements = new ArrayList<>();
+      for (Future<ProgressiveStatement> future : futures) {
+        final ProgressiveStatement statement = future.get();
+        statements.add(statement);
+
+        if (statement instanceof ProgressiveSelectStatement) {
+          selects++;
+        } else if (statement instanceof SharedSelectStatement) {
+          shared++;
+        }
+      }
+      assertEquals(1, selects);
+      assertEquals(CLIENTS - 1, shared);
+
+      for (ProgressiveStatement statement : statements) {
+        statement.close();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private SqlSelectProgressive parse(String sql) throws Exception {
+    final SqlSelect select = (SqlSelect) SqlParser.create(sql).parseQuery();
+    return new SqlSelectProgressive(
+        select.getParserPosition(),
+        null,
+        select.getSelectList(),
+        select.getFrom(),
+        null,
+        select.getWhere(),
+        null,
+        select.getGroup(),
+        select.getHaving(),
+        null,
+        false,
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+}
@@ -0,0 +1,44 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StepSizeEstimatorTest {
+
+  private static final String SHAPE = "select a from t";
+
+  @Test
+  void testDisabled() {
+    final StepSizeEstimator estimator = new StepSizeEstimator(0);
+    estimator.record(SHAPE, 1, TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertEquals(1, estimator.getStepSize(SHAPE, 1));
+  }
+
+  @Test
+  void testUnknownShape() {
+    final StepSizeEstimator estimator = new StepSizeEstimator(1000);
+
+    assertEquals(1, estimator.getStepSize(SHAPE, 1));
+  }
+
+  @Test
+  void testMergeFastPartitions() {
+    final StepSizeEstimator estimator = new StepSizeEstimator(1000);
+    estimator.record(SHAPE, 2, TimeUnit.MILLISECONDS.toNanos(200));
+
+    assertEquals(10, estimator.getStepSize(SHAPE, 1));
+    assertEquals(20, estimator.getStepSize(SHAPE, 2));
+  }
+
+  @Test
+  void testSlowPartitions() {
+    final StepSizeEstimator estimator = new StepSizeEstimator(1000);
+    estimator.record(SHAPE, 1, TimeUnit.MILLISECONDS.toNanos(100));
+    estimator.record(SHAPE, 1, TimeUnit.MILLISECONDS.toNanos(4000));
+
+    assertEquals(1, estimator.getStepSize(SHAPE, 1));
+  }
+}
@@ -0,0 +1,84 @@
+package de.tuda.progressive.db.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class StreamingResultSetTest {
+
+  private static final int ROWS = 1000;
+
+  private static Connection connection;
+
+  private static ExecutorService executor;
+
+  @BeforeAll
+  static void beforeAll() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    executor = Executors.newCachedThreadPool();
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("create table t (a integer, b varchar(100))");
+    }
+    try (PreparedStatement statement = connection.prepareStatement("insert into t values (?, ?)")) {
+      for (int i = 0; i < ROWS; i++) {
+        statement.setInt(1, i);
+        statement.setString(2, "b" + i);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  @AfterAll
+  static void afterAll() throws SQLException {
+    executor.shutdownNow();
+    if (connection != null) {
+      connection.close();
+    }
+  }
+
+  @Test
+  void testAllRows() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      final ResultSet source = statement.executeQuery("select a, b from t order by a");
+
+      try (ResultSet result = new StreamingResultSet(source, 10, executor)) {
+        assertEquals(2, result.getMetaData().getColumnCount());
+
+        int count = 0;
+        while (result.next()) {
+          assertEquals(count, result.getInt(1));
+          assertEquals("b" + count, result.getObject(2));
+          count++;
+        }
+        assertEquals(ROWS, count);
+        assertFalse(result.next());
+      }
+    }
+  }
+
+  @Test
+  void testCloseEarly() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      final ResultSet source = statement.executeQuery("select a, b from t");
+      final ResultSet result = new StreamingResultSet(source, 10, executor);
+
+      result.next();
+      result.close();
+
+      assertFalse(result.next());
+    }
+  }
+}
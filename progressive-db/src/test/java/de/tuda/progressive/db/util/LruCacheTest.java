@@ -0,0 +1,52 @@
+package de.tuda.progressive.db.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+  @Test
+  void testEvictLeastRecentlyUsed() {
+    final LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    // a is used more recently than b
+    assertEquals(1, (int) cache.get("a"));
+    cache.put("c", 3);
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertEquals(1, (int) cache.get("a"));
+    assertEquals(3, (int) cache.get("c"));
+  }
+
+  @Test
+  void testClear() {
+    final LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.clear();
+
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  void testEvicted() {
+    final List<Integer> evicted = new ArrayList<>();
+    final LruCache<String, Integer> cache = new LruCache<>(2, (key, value) -> evicted.add(value));
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.put("c", 3);
+    cache.put("c", 4);
+    assertEquals(Arrays.asList(1, 3), evicted);
+
+    assertEquals(2, (int) cache.remove("b"));
+    cache.clear();
+    assertEquals(Arrays.asList(1, 3, 4), evicted);
+  }
+}
@@ -5,11 +5,14 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 public class LogWatcher {
@@ -32,32 +35,68 @@ public class LogWatcher {
   public void start() {
     new Thread(
         () -> {
-          try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
+          BufferedReader br = null;
+          try {
+            br = new BufferedReader(new FileReader(file));
+            Object fileKey = getFileKey();
 
             WatchService watchService = FileSystems.getDefault().newWatchService();
 
             file.getParentFile()
                 .toPath()
-                .register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
+                .register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
 
             WatchKey key;
             while ((key = watchService.take()) != null) {
               for (WatchEvent<?> event : key.pollEvents()) {
-                while ((line = br.readLine()) != null) {
-                  final String log = line;
-                  listeners.forEach(l -> l.notify(log));
+                read(br);
+
+                final Object currentKey = getFileKey();
+                if (currentKey != null && !Objects.equals(fileKey, currentKey)) {
+                  // the log was rotated, continue with the new file
+                  br.close();
+                  br = new BufferedReader(new FileReader(file));
+                  fileKey = currentKey;
+                  read(br);
                 }
               }
               key.reset();
             }
           } catch (Exception e) {
             e.printStackTrace();
+          } finally {
+            if (br != null) {
+              try {
+                br.close();
+              } catch (IOException e) {
+                e.printStackTrace();
+              }
+            }
           }
         })
         .start();
   }
 
+  private void read(BufferedReader br) throws IOException {
+    String line;
+    while ((line = br.readLine()) != null) {
+      final String log = line;
+      listeners.forEach(l -> l.notify(log));
+    }
+  }
+
+  private Object getFileKey() {
+    try {
+      return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    } catch (IOException e) {
+      // the file is being rotated
+      return null;
+    }
+  }
+
   public void register(Listener listener) {
     listeners.add(listener);
   }